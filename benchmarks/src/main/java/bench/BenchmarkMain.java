@@ -0,0 +1,46 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Lance JMH avec les options de la ligne de commande, et par défaut :
+ * le profileur GC (taux d'allocation, {@code gc.alloc.rate.norm} en octets par
+ * opération) et un résultat JSON dans {@code jmh-result.json}, à comparer
+ * entre deux exécutions.
+ *
+ * Usage : {@code java -jar benchmarks/target/benchmarks.jar [options JMH]}
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions ligneDeCommande = new CommandLineOptions(args);
+        if (ligneDeCommande.shouldHelp()) {
+            ligneDeCommande.showHelp();
+            return;
+        }
+        if (ligneDeCommande.shouldList()) {
+            new Runner(ligneDeCommande).list();
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(ligneDeCommande);
+        if (!ligneDeCommande.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!ligneDeCommande.getResult().hasValue()) {
+            options.result("jmh-result.json");
+        }
+        if (ligneDeCommande.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import annotation.Colonne;
+import annotation.PrimaryKey;
+import annotation.Table;
+import java.sql.Timestamp;
+
+/**
+ * Entité de benchmark à 20 colonnes (clé primaire comprise), générée
+ * selon le cycle de types de {@link Entites}.
+ */
+@Table(nom = "entite_20")
+public class Entite20 {
+
+    @PrimaryKey
+    private int id;
+    @Colonne(nom = "col_1")
+    private String c1;
+    @Colonne(nom = "col_2")
+    private int c2;
+    @Colonne(nom = "col_3")
+    private double c3;
+    @Colonne(nom = "col_4")
+    private Long c4;
+    @Colonne(nom = "col_5")
+    private Timestamp c5;
+    @Colonne(nom = "col_6")
+    private Boolean c6;
+    @Colonne(nom = "col_7")
+    private long c7;
+    @Colonne(nom = "col_8")
+    private Integer c8;
+    @Colonne(nom = "col_9")
+    private Double c9;
+    @Colonne(nom = "col_10")
+    private String c10;
+    @Colonne(nom = "col_11")
+    private String c11;
+    @Colonne(nom = "col_12")
+    private int c12;
+    @Colonne(nom = "col_13")
+    private double c13;
+    @Colonne(nom = "col_14")
+    private Long c14;
+    @Colonne(nom = "col_15")
+    private Timestamp c15;
+    @Colonne(nom = "col_16")
+    private Boolean c16;
+    @Colonne(nom = "col_17")
+    private long c17;
+    @Colonne(nom = "col_18")
+    private Integer c18;
+    @Colonne(nom = "col_19")
+    private Double c19;
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public String getC1() { return c1; }
+    public void setC1(String c1) { this.c1 = c1; }
+    public int getC2() { return c2; }
+    public void setC2(int c2) { this.c2 = c2; }
+    public double getC3() { return c3; }
+    public void setC3(double c3) { this.c3 = c3; }
+    public Long getC4() { return c4; }
+    public void setC4(Long c4) { this.c4 = c4; }
+    public Timestamp getC5() { return c5; }
+    public void setC5(Timestamp c5) { this.c5 = c5; }
+    public Boolean getC6() { return c6; }
+    public void setC6(Boolean c6) { this.c6 = c6; }
+    public long getC7() { return c7; }
+    public void setC7(long c7) { this.c7 = c7; }
+    public Integer getC8() { return c8; }
+    public void setC8(Integer c8) { this.c8 = c8; }
+    public Double getC9() { return c9; }
+    public void setC9(Double c9) { this.c9 = c9; }
+    public String getC10() { return c10; }
+    public void setC10(String c10) { this.c10 = c10; }
+    public String getC11() { return c11; }
+    public void setC11(String c11) { this.c11 = c11; }
+    public int getC12() { return c12; }
+    public void setC12(int c12) { this.c12 = c12; }
+    public double getC13() { return c13; }
+    public void setC13(double c13) { this.c13 = c13; }
+    public Long getC14() { return c14; }
+    public void setC14(Long c14) { this.c14 = c14; }
+    public Timestamp getC15() { return c15; }
+    public void setC15(Timestamp c15) { this.c15 = c15; }
+    public Boolean getC16() { return c16; }
+    public void setC16(Boolean c16) { this.c16 = c16; }
+    public long getC17() { return c17; }
+    public void setC17(long c17) { this.c17 = c17; }
+    public Integer getC18() { return c18; }
+    public void setC18(Integer c18) { this.c18 = c18; }
+    public Double getC19() { return c19; }
+    public void setC19(Double c19) { this.c19 = c19; }
+}
@@ -0,0 +1,39 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import annotation.Colonne;
+import annotation.PrimaryKey;
+import annotation.Table;
+
+/**
+ * Entité de benchmark à 5 colonnes (clé primaire comprise), générée
+ * selon le cycle de types de {@link Entites}.
+ */
+@Table(nom = "entite_5")
+public class Entite5 {
+
+    @PrimaryKey
+    private int id;
+    @Colonne(nom = "col_1")
+    private String c1;
+    @Colonne(nom = "col_2")
+    private int c2;
+    @Colonne(nom = "col_3")
+    private double c3;
+    @Colonne(nom = "col_4")
+    private Long c4;
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public String getC1() { return c1; }
+    public void setC1(String c1) { this.c1 = c1; }
+    public int getC2() { return c2; }
+    public void setC2(int c2) { this.c2 = c2; }
+    public double getC3() { return c3; }
+    public void setC3(double c3) { this.c3 = c3; }
+    public Long getC4() { return c4; }
+    public void setC4(Long c4) { this.c4 = c4; }
+}
@@ -0,0 +1,220 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import annotation.Colonne;
+import annotation.PrimaryKey;
+import annotation.Table;
+import java.sql.Timestamp;
+
+/**
+ * Entité de benchmark à 50 colonnes (clé primaire comprise), générée
+ * selon le cycle de types de {@link Entites}.
+ */
+@Table(nom = "entite_50")
+public class Entite50 {
+
+    @PrimaryKey
+    private int id;
+    @Colonne(nom = "col_1")
+    private String c1;
+    @Colonne(nom = "col_2")
+    private int c2;
+    @Colonne(nom = "col_3")
+    private double c3;
+    @Colonne(nom = "col_4")
+    private Long c4;
+    @Colonne(nom = "col_5")
+    private Timestamp c5;
+    @Colonne(nom = "col_6")
+    private Boolean c6;
+    @Colonne(nom = "col_7")
+    private long c7;
+    @Colonne(nom = "col_8")
+    private Integer c8;
+    @Colonne(nom = "col_9")
+    private Double c9;
+    @Colonne(nom = "col_10")
+    private String c10;
+    @Colonne(nom = "col_11")
+    private String c11;
+    @Colonne(nom = "col_12")
+    private int c12;
+    @Colonne(nom = "col_13")
+    private double c13;
+    @Colonne(nom = "col_14")
+    private Long c14;
+    @Colonne(nom = "col_15")
+    private Timestamp c15;
+    @Colonne(nom = "col_16")
+    private Boolean c16;
+    @Colonne(nom = "col_17")
+    private long c17;
+    @Colonne(nom = "col_18")
+    private Integer c18;
+    @Colonne(nom = "col_19")
+    private Double c19;
+    @Colonne(nom = "col_20")
+    private String c20;
+    @Colonne(nom = "col_21")
+    private String c21;
+    @Colonne(nom = "col_22")
+    private int c22;
+    @Colonne(nom = "col_23")
+    private double c23;
+    @Colonne(nom = "col_24")
+    private Long c24;
+    @Colonne(nom = "col_25")
+    private Timestamp c25;
+    @Colonne(nom = "col_26")
+    private Boolean c26;
+    @Colonne(nom = "col_27")
+    private long c27;
+    @Colonne(nom = "col_28")
+    private Integer c28;
+    @Colonne(nom = "col_29")
+    private Double c29;
+    @Colonne(nom = "col_30")
+    private String c30;
+    @Colonne(nom = "col_31")
+    private String c31;
+    @Colonne(nom = "col_32")
+    private int c32;
+    @Colonne(nom = "col_33")
+    private double c33;
+    @Colonne(nom = "col_34")
+    private Long c34;
+    @Colonne(nom = "col_35")
+    private Timestamp c35;
+    @Colonne(nom = "col_36")
+    private Boolean c36;
+    @Colonne(nom = "col_37")
+    private long c37;
+    @Colonne(nom = "col_38")
+    private Integer c38;
+    @Colonne(nom = "col_39")
+    private Double c39;
+    @Colonne(nom = "col_40")
+    private String c40;
+    @Colonne(nom = "col_41")
+    private String c41;
+    @Colonne(nom = "col_42")
+    private int c42;
+    @Colonne(nom = "col_43")
+    private double c43;
+    @Colonne(nom = "col_44")
+    private Long c44;
+    @Colonne(nom = "col_45")
+    private Timestamp c45;
+    @Colonne(nom = "col_46")
+    private Boolean c46;
+    @Colonne(nom = "col_47")
+    private long c47;
+    @Colonne(nom = "col_48")
+    private Integer c48;
+    @Colonne(nom = "col_49")
+    private Double c49;
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public String getC1() { return c1; }
+    public void setC1(String c1) { this.c1 = c1; }
+    public int getC2() { return c2; }
+    public void setC2(int c2) { this.c2 = c2; }
+    public double getC3() { return c3; }
+    public void setC3(double c3) { this.c3 = c3; }
+    public Long getC4() { return c4; }
+    public void setC4(Long c4) { this.c4 = c4; }
+    public Timestamp getC5() { return c5; }
+    public void setC5(Timestamp c5) { this.c5 = c5; }
+    public Boolean getC6() { return c6; }
+    public void setC6(Boolean c6) { this.c6 = c6; }
+    public long getC7() { return c7; }
+    public void setC7(long c7) { this.c7 = c7; }
+    public Integer getC8() { return c8; }
+    public void setC8(Integer c8) { this.c8 = c8; }
+    public Double getC9() { return c9; }
+    public void setC9(Double c9) { this.c9 = c9; }
+    public String getC10() { return c10; }
+    public void setC10(String c10) { this.c10 = c10; }
+    public String getC11() { return c11; }
+    public void setC11(String c11) { this.c11 = c11; }
+    public int getC12() { return c12; }
+    public void setC12(int c12) { this.c12 = c12; }
+    public double getC13() { return c13; }
+    public void setC13(double c13) { this.c13 = c13; }
+    public Long getC14() { return c14; }
+    public void setC14(Long c14) { this.c14 = c14; }
+    public Timestamp getC15() { return c15; }
+    public void setC15(Timestamp c15) { this.c15 = c15; }
+    public Boolean getC16() { return c16; }
+    public void setC16(Boolean c16) { this.c16 = c16; }
+    public long getC17() { return c17; }
+    public void setC17(long c17) { this.c17 = c17; }
+    public Integer getC18() { return c18; }
+    public void setC18(Integer c18) { this.c18 = c18; }
+    public Double getC19() { return c19; }
+    public void setC19(Double c19) { this.c19 = c19; }
+    public String getC20() { return c20; }
+    public void setC20(String c20) { this.c20 = c20; }
+    public String getC21() { return c21; }
+    public void setC21(String c21) { this.c21 = c21; }
+    public int getC22() { return c22; }
+    public void setC22(int c22) { this.c22 = c22; }
+    public double getC23() { return c23; }
+    public void setC23(double c23) { this.c23 = c23; }
+    public Long getC24() { return c24; }
+    public void setC24(Long c24) { this.c24 = c24; }
+    public Timestamp getC25() { return c25; }
+    public void setC25(Timestamp c25) { this.c25 = c25; }
+    public Boolean getC26() { return c26; }
+    public void setC26(Boolean c26) { this.c26 = c26; }
+    public long getC27() { return c27; }
+    public void setC27(long c27) { this.c27 = c27; }
+    public Integer getC28() { return c28; }
+    public void setC28(Integer c28) { this.c28 = c28; }
+    public Double getC29() { return c29; }
+    public void setC29(Double c29) { this.c29 = c29; }
+    public String getC30() { return c30; }
+    public void setC30(String c30) { this.c30 = c30; }
+    public String getC31() { return c31; }
+    public void setC31(String c31) { this.c31 = c31; }
+    public int getC32() { return c32; }
+    public void setC32(int c32) { this.c32 = c32; }
+    public double getC33() { return c33; }
+    public void setC33(double c33) { this.c33 = c33; }
+    public Long getC34() { return c34; }
+    public void setC34(Long c34) { this.c34 = c34; }
+    public Timestamp getC35() { return c35; }
+    public void setC35(Timestamp c35) { this.c35 = c35; }
+    public Boolean getC36() { return c36; }
+    public void setC36(Boolean c36) { this.c36 = c36; }
+    public long getC37() { return c37; }
+    public void setC37(long c37) { this.c37 = c37; }
+    public Integer getC38() { return c38; }
+    public void setC38(Integer c38) { this.c38 = c38; }
+    public Double getC39() { return c39; }
+    public void setC39(Double c39) { this.c39 = c39; }
+    public String getC40() { return c40; }
+    public void setC40(String c40) { this.c40 = c40; }
+    public String getC41() { return c41; }
+    public void setC41(String c41) { this.c41 = c41; }
+    public int getC42() { return c42; }
+    public void setC42(int c42) { this.c42 = c42; }
+    public double getC43() { return c43; }
+    public void setC43(double c43) { this.c43 = c43; }
+    public Long getC44() { return c44; }
+    public void setC44(Long c44) { this.c44 = c44; }
+    public Timestamp getC45() { return c45; }
+    public void setC45(Timestamp c45) { this.c45 = c45; }
+    public Boolean getC46() { return c46; }
+    public void setC46(Boolean c46) { this.c46 = c46; }
+    public long getC47() { return c47; }
+    public void setC47(long c47) { this.c47 = c47; }
+    public Integer getC48() { return c48; }
+    public void setC48(Integer c48) { this.c48 = c48; }
+    public Double getC49() { return c49; }
+    public void setC49(Double c49) { this.c49 = c49; }
+}
@@ -0,0 +1,151 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import acces.ColumnMetadata;
+import acces.EntityMetadata;
+import acces.MappingMode;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Données des benchmarks. Les entités {@link Entite5}, {@link Entite20} et
+ * {@link Entite50} ont une clé primaire {@code id} puis des colonnes
+ * {@code col_k} dont le type suit le cycle String, int, double, Long,
+ * Timestamp, Boolean, long, Integer, Double, String.
+ *
+ * Chaque ligne a {@code col_1 = 'g'} et des primitifs non nuls : la sonde
+ * {@link #sonde} (col_1 = 'g', primitifs à 0) sélectionne donc toutes les
+ * lignes avec findByCriteria comme avec findMulticriteria.
+ */
+final class Entites {
+
+    static final String GROUPE = "g";
+
+    private Entites() {
+    }
+
+    static Class<?> classe(int colonnes) {
+        switch (colonnes) {
+            case 5:
+                return Entite5.class;
+            case 20:
+                return Entite20.class;
+            case 50:
+                return Entite50.class;
+            default:
+                throw new IllegalArgumentException("Pas d'entité à " + colonnes + " colonnes");
+        }
+    }
+
+    static String ddl(EntityMetadata meta) {
+        StringBuilder sql = new StringBuilder("CREATE TABLE ").append(meta.getNomTable()).append(" (");
+        for (ColumnMetadata colonne : meta.getColonnes()) {
+            if (colonne.isPrimaryKey()) {
+                sql.append(colonne.getNom()).append(" serial PRIMARY KEY");
+            } else {
+                sql.append(", ").append(colonne.getNom()).append(' ').append(typeSql(colonne.getType()));
+            }
+        }
+        return sql.append(')').toString();
+    }
+
+    static int typeJdbc(Class<?> type) {
+        if (type == String.class) {
+            return Types.VARCHAR;
+        } else if (type == int.class || type == Integer.class) {
+            return Types.INTEGER;
+        } else if (type == long.class || type == Long.class) {
+            return Types.BIGINT;
+        } else if (type == double.class || type == Double.class) {
+            return Types.DOUBLE;
+        } else if (type == Boolean.class) {
+            return Types.BOOLEAN;
+        } else if (type == Timestamp.class) {
+            return Types.TIMESTAMP;
+        }
+        throw new IllegalArgumentException("Type non prévu : " + type);
+    }
+
+    private static String typeSql(Class<?> type) {
+        switch (typeJdbc(type)) {
+            case Types.VARCHAR:
+                return "varchar(64)";
+            case Types.INTEGER:
+                return "integer";
+            case Types.BIGINT:
+                return "bigint";
+            case Types.DOUBLE:
+                return "double precision";
+            case Types.BOOLEAN:
+                return "boolean";
+            default:
+                return "timestamp";
+        }
+    }
+
+    /**
+     * Valeur de la colonne {@code k} pour la ligne {@code i} (jamais nulle
+     * ni nulle en numérique, pour que la sonde ne filtre rien).
+     */
+    static Object valeur(Class<?> type, int k, int i) {
+        switch (typeJdbc(type)) {
+            case Types.VARCHAR:
+                return k == 1 ? GROUPE : "valeur " + k + " ligne " + i;
+            case Types.INTEGER:
+                return i + k;
+            case Types.BIGINT:
+                return (long) i * 1000 + k;
+            case Types.DOUBLE:
+                return i + k + 0.5;
+            case Types.BOOLEAN:
+                return (i + k) % 2 == 0;
+            default:
+                return new Timestamp(1_700_000_000_000L + i * 1000L + k);
+        }
+    }
+
+    /**
+     * @return Les lignes, dans l'ordre des colonnes de l'entité
+     */
+    static Object[][] lignes(EntityMetadata meta, int nombre) {
+        List<ColumnMetadata> colonnes = meta.getColonnes();
+        Object[][] lignes = new Object[nombre][colonnes.size()];
+        for (int i = 0; i < nombre; i++) {
+            lignes[i][0] = i + 1;
+            for (int k = 1; k < colonnes.size(); k++) {
+                lignes[i][k] = valeur(colonnes.get(k).getType(), k, i);
+            }
+        }
+        return lignes;
+    }
+
+    /**
+     * @return Les mêmes lignes sous forme d'objets, à insérer avec insertAll
+     */
+    static Object[] objets(EntityMetadata meta, int nombre) throws Exception {
+        List<ColumnMetadata> colonnes = meta.getColonnes();
+        Object[][] lignes = lignes(meta, nombre);
+        Object[] objets = new Object[nombre];
+        for (int i = 0; i < nombre; i++) {
+            Object objet = meta.newInstance();
+            for (int k = 1; k < colonnes.size(); k++) {
+                colonnes.get(k).getAccesseur(MappingMode.REFLECTION).set(objet, lignes[i][k]);
+            }
+            objets[i] = objet;
+        }
+        return objets;
+    }
+
+    /**
+     * @return Un objet dont seul col_1 est renseigné (les primitifs restent à 0)
+     */
+    static Object sonde(EntityMetadata meta) throws Exception {
+        Object sonde = meta.newInstance();
+        meta.getColonnes().get(1).getAccesseur(MappingMode.REFLECTION).set(sonde, GROUPE);
+        return sonde;
+    }
+}
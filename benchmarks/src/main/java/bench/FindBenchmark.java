@@ -0,0 +1,108 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import acces.DAORead;
+import acces.EntityMetadata;
+import acces.MappingMode;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Débit des lectures du DAO ({@code find}, {@code findAll},
+ * {@code findByCriteria}, {@code findMulticriteria}) : chaque opération lit
+ * et hydrate {@link #lignes} objets. Les sous-classes fournissent la source
+ * des lignes (H2 ou ResultSet factice).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class FindBenchmark {
+
+    @Param({"5", "20", "50"})
+    public int colonnes;
+
+    @Param({"1000"})
+    public int lignes;
+
+    @Param({"GENERATED", "REFLECTION"})
+    public MappingMode mode;
+
+    protected EntityMetadata meta;
+    protected Connection co;
+    private DAORead dao;
+    private Object vide;
+    private Object sonde;
+    private String select;
+
+    /**
+     * @return La connexion dont les requêtes rendent les lignes de
+     *         {@link Entites#lignes}
+     */
+    protected abstract Connection connexion() throws Exception;
+
+    @Setup
+    public void preparer() throws Exception {
+        meta = EntityMetadata.of(Entites.classe(colonnes));
+        co = connexion();
+        dao = new DAORead();
+        dao.setMappingMode(mode);
+        vide = meta.newInstance();
+        sonde = Entites.sonde(meta);
+        select = "SELECT * FROM " + meta.getNomTable();
+        // Les quatre lectures doivent rendre toutes les lignes
+        verifier(find());
+        verifier(findAll());
+        verifier(findByCriteria());
+        verifier(findMulticriteria());
+    }
+
+    private void verifier(List<Object> resultat) {
+        if (resultat.size() != lignes) {
+            throw new IllegalStateException(resultat.size() + " lignes lues au lieu de " + lignes);
+        }
+    }
+
+    @TearDown
+    public void fermer() throws Exception {
+        co.close();
+    }
+
+    @Benchmark
+    public List<Object> find() throws Exception {
+        return dao.find(co, vide, select);
+    }
+
+    @Benchmark
+    public List<Object> findAll() throws Exception {
+        return dao.findAll(co, vide);
+    }
+
+    @Benchmark
+    public List<Object> findByCriteria() throws Exception {
+        return dao.findByCriteria(co, sonde);
+    }
+
+    @Benchmark
+    public List<Object> findMulticriteria() throws Exception {
+        return dao.findMulticriteria(co, sonde, vide);
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import acces.DAO_CUD;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Lectures contre une base H2 en mémoire en mode PostgreSQL : coût complet,
+ * exécution de la requête comprise.
+ */
+public class H2FindBenchmark extends FindBenchmark {
+
+    @Override
+    protected Connection connexion() throws Exception {
+        Connection co = DriverManager.getConnection("jdbc:h2:mem:" + meta.getNomTable() + "_" + mode
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        try (Statement stmt = co.createStatement()) {
+            stmt.execute(Entites.ddl(meta));
+        }
+        new DAO_CUD().insertAll(co, Arrays.asList(Entites.objets(meta, lignes)));
+        return co;
+    }
+}
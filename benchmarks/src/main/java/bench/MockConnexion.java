@@ -0,0 +1,90 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import acces.ColumnMetadata;
+import acces.EntityMetadata;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import org.h2.tools.SimpleResultSet;
+import org.h2.tools.SimpleRowSource;
+
+/**
+ * Connexion factice dont chaque requête, quel que soit son SQL, rend les
+ * mêmes lignes en mémoire. Le ResultSet est un {@link SimpleResultSet} de H2
+ * lisant un tableau préparé à l'avance : sans réseau, sans analyse SQL et
+ * sans allocation par ligne, ce qui isole le coût du mapping.
+ */
+final class MockConnexion {
+
+    private MockConnexion() {
+    }
+
+    static Connection creer(EntityMetadata meta, Object[][] lignes) {
+        List<ColumnMetadata> colonnes = meta.getColonnes();
+        Object statement = Proxy.newProxyInstance(MockConnexion.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "executeQuery":
+                            return resultSet(colonnes, lignes);
+                        case "isClosed":
+                            return false;
+                        case "setFetchSize":
+                        case "close":
+                            return null;
+                        default:
+                            // setObject, setNull... : les paramètres sont ignorés
+                            if (method.getName().startsWith("set")) {
+                                return null;
+                            }
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return (Connection) Proxy.newProxyInstance(MockConnexion.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "createStatement":
+                        case "prepareStatement":
+                            return statement;
+                        case "getAutoCommit":
+                            return true;
+                        case "setAutoCommit":
+                        case "close":
+                            return null;
+                        case "isClosed":
+                            return false;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static ResultSet resultSet(List<ColumnMetadata> colonnes, Object[][] lignes) {
+        SimpleResultSet rs = new SimpleResultSet(new SimpleRowSource() {
+            private int ligne;
+
+            @Override
+            public Object[] readRow() {
+                return ligne < lignes.length ? lignes[ligne++] : null;
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public void reset() {
+                ligne = 0;
+            }
+        });
+        for (ColumnMetadata colonne : colonnes) {
+            rs.addColumn(colonne.getNom(), Entites.typeJdbc(colonne.getType()), 0, 0);
+        }
+        return rs;
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import java.sql.Connection;
+
+/**
+ * Lectures sur un ResultSet factice en mémoire ({@link MockConnexion}) : ne
+ * mesure que le mapping des lignes vers les objets.
+ */
+public class MockFindBenchmark extends FindBenchmark {
+
+    @Override
+    protected Connection connexion() {
+        return MockConnexion.creer(meta, Entites.lignes(meta, lignes));
+    }
+}
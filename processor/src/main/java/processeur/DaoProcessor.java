@@ -0,0 +1,352 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package processeur;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Processeur d'annotations qui génère, pour chaque classe {@code @Table},
+ * une classe {@code <Classe>_Dao} implémentant {@code acces.EntityBinding} :
+ * constructeur, accesseurs appelant directement les getters et setters
+ * (sans boxing pour int, long, double et boolean) et SQL d'écriture
+ * précalculé. Le DAO la trouve à l'exécution et n'a plus à générer ses
+ * accesseurs par {@code LambdaMetafactory}.
+ *
+ * Les règles sont celles du DAO : tous les champs non statiques sont lus,
+ * les non finals sont écrits, la clé primaire est le premier champ
+ * {@code @PrimaryKey}, le nom de colonne vient de {@code @Colonne}, les
+ * colonnes {@code @Lazy} ne sont pas lues par le SELECT généré et les
+ * accesseurs sont les méthodes publiques {@code getX()} et {@code setX(type)}.
+ * Les classes sans constructeur sans argument accessible, privées ou
+ * internes non statiques sont ignorées avec un avertissement.
+ */
+public class DaoProcessor extends AbstractProcessor {
+
+    private static final String TABLE = "annotation.Table";
+    private static final String COLONNE = "annotation.Colonne";
+    private static final String PRIMARY_KEY = "annotation.PrimaryKey";
+    private static final String LAZY = "annotation.Lazy";
+    private static final String SUFFIXE = "_Dao";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(TABLE);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement table = processingEnv.getElementUtils().getTypeElement(TABLE);
+        if (table == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(table)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            TypeElement classe = (TypeElement) element;
+            String refus = refus(classe);
+            if (refus != null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "Pas de liaison générée pour " + classe.getQualifiedName() + " : " + refus, classe);
+                continue;
+            }
+            try {
+                generer(classe);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Génération de la liaison impossible : " + e.getMessage(), classe);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return La raison pour laquelle la classe ne peut pas être liée, ou null
+     */
+    private static String refus(TypeElement classe) {
+        if (classe.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "classe abstraite";
+        }
+        for (Element e = classe; e.getKind() == ElementKind.CLASS; e = e.getEnclosingElement()) {
+            TypeElement type = (TypeElement) e;
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                return "classe privée";
+            }
+            if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+                return "classe interne non statique";
+            }
+            if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+                return "classe locale";
+            }
+        }
+        for (ExecutableElement constructeur : ElementFilter.constructorsIn(classe.getEnclosedElements())) {
+            if (constructeur.getParameters().isEmpty() && !constructeur.getModifiers().contains(Modifier.PRIVATE)) {
+                return null;
+            }
+        }
+        return "pas de constructeur sans argument";
+    }
+
+    /**
+     * Un champ mappé, tel que le voit le DAO.
+     */
+    private static final class Champ {
+
+        String nom;
+        String colonne;
+        TypeMirror type;
+        boolean ecrit;
+        boolean cle;
+        boolean lazy;
+        String getter;
+        String setter;
+    }
+
+    private void generer(TypeElement classe) throws IOException {
+        String nomTable = valeur(classe, TABLE, "nom");
+        PackageElement paquet = processingEnv.getElementUtils().getPackageOf(classe);
+        String nomPaquet = paquet.isUnnamed() ? "" : paquet.getQualifiedName().toString();
+        String simple = classe.getQualifiedName().toString().substring(nomPaquet.isEmpty() ? 0 : nomPaquet.length() + 1);
+        String nomGenere = simple.replace('.', '_') + SUFFIXE;
+        String type = classe.getQualifiedName().toString();
+
+        List<ExecutableElement> methodes = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(classe));
+        List<Champ> champs = new ArrayList<>();
+        Champ pk = null;
+        for (VariableElement field : ElementFilter.fieldsIn(classe.getEnclosedElements())) {
+            Champ champ = new Champ();
+            champ.nom = field.getSimpleName().toString();
+            String colonne = valeur(field, COLONNE, "nom");
+            champ.colonne = colonne != null ? colonne : champ.nom;
+            champ.cle = annotation(field, PRIMARY_KEY) != null;
+            // Comme le DAO : le premier @PrimaryKey, même statique
+            if (pk == null && champ.cle) {
+                pk = champ;
+            }
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            champ.type = field.asType();
+            champ.ecrit = !field.getModifiers().contains(Modifier.FINAL);
+            champ.lazy = annotation(field, LAZY) != null;
+            String suffixe = Character.toUpperCase(champ.nom.charAt(0)) + champ.nom.substring(1);
+            champ.getter = accesseur(methodes, "get" + suffixe, null);
+            champ.setter = accesseur(methodes, "set" + suffixe, champ.type);
+            champs.add(champ);
+        }
+
+        StringBuilder noms = new StringBuilder();
+        StringBuilder params = new StringBuilder();
+        StringBuilder set = new StringBuilder();
+        for (Champ champ : champs) {
+            if (!champ.ecrit || champ.cle) {
+                continue;
+            }
+            if (noms.length() > 0) {
+                noms.append(", ");
+                params.append(", ");
+                set.append(", ");
+            }
+            noms.append(champ.colonne);
+            params.append('?');
+            set.append(champ.colonne).append(" = ?");
+        }
+        String sqlInsert = "INSERT INTO " + nomTable + " (" + noms + ") VALUES (" + params + ")";
+        String sqlUpdate = pk == null ? null : "UPDATE " + nomTable + " SET " + set + " WHERE " + pk.colonne + " = ?";
+        String sqlDelete = pk == null ? null : "DELETE FROM " + nomTable + " WHERE " + pk.colonne + " = ?";
+        // Lecture : les colonnes mappées hors @Lazy, comme le DAO
+        StringBuilder selection = new StringBuilder();
+        for (Champ champ : champs) {
+            if (!champ.lazy) {
+                selection.append(selection.length() > 0 ? ", " : "").append(champ.colonne);
+            }
+        }
+        String sqlSelectById = pk == null ? null
+                : "SELECT " + (selection.length() > 0 ? selection : "*") + " FROM " + nomTable + " WHERE " + pk.colonne + " = ?";
+
+        StringBuilder src = new StringBuilder();
+        if (!nomPaquet.isEmpty()) {
+            src.append("package ").append(nomPaquet).append(";\n\n");
+        }
+        src.append("@javax.annotation.processing.Generated(\"").append(DaoProcessor.class.getName()).append("\")\n");
+        src.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        src.append("public final class ").append(nomGenere).append(" implements acces.EntityBinding<").append(type).append("> {\n\n");
+        for (int i = 0; i < champs.size(); i++) {
+            Champ champ = champs.get(i);
+            if (champ.getter != null && champ.setter != null) {
+                accesseurSource(src, "A" + i, type, champ);
+            }
+        }
+        src.append("    @Override\n    public Class<").append(type).append("> getClasse() {\n        return ").append(type).append(".class;\n    }\n\n");
+        src.append("    @Override\n    public String getNomTable() {\n        return ").append(litteral(nomTable)).append(";\n    }\n\n");
+        src.append("    @Override\n    public String[] getColonnes() {\n        return new String[]{");
+        for (int i = 0; i < champs.size(); i++) {
+            src.append(i > 0 ? ", " : "").append(litteral(champs.get(i).colonne));
+        }
+        src.append("};\n    }\n\n");
+        src.append("    @Override\n    public ").append(type).append(" newInstance() {\n        return new ").append(type).append("();\n    }\n\n");
+        src.append("    @Override\n    public acces.ColumnAccessor getAccesseur(String champ) {\n        switch (champ) {\n");
+        for (int i = 0; i < champs.size(); i++) {
+            Champ champ = champs.get(i);
+            if (champ.getter != null && champ.setter != null) {
+                src.append("            case ").append(litteral(champ.nom)).append(":\n                return A").append(i).append(";\n");
+            }
+        }
+        src.append("            default:\n                return null;\n        }\n    }\n\n");
+        sqlSource(src, "getSqlInsert", sqlInsert);
+        sqlSource(src, "getSqlUpdate", sqlUpdate);
+        sqlSource(src, "getSqlDelete", sqlDelete);
+        sqlSource(src, "getSqlSelectById", sqlSelectById);
+        src.setLength(src.length() - 1);
+        src.append("}\n");
+
+        String nomComplet = nomPaquet.isEmpty() ? nomGenere : nomPaquet + "." + nomGenere;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(nomComplet, classe).openWriter()) {
+            writer.write(src.toString());
+        }
+    }
+
+    /**
+     * Écrit l'accesseur d'un champ : get/set par les méthodes de la classe,
+     * plus le chemin sans boxing pour les quatre primitifs du DAO.
+     */
+    private void accesseurSource(StringBuilder src, String nom, String type, Champ champ) {
+        String bean = "((" + type + ") bean)";
+        String typeChamp = processingEnv.getTypeUtils().erasure(champ.type).toString();
+        String boite = champ.type.getKind().isPrimitive()
+                ? processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(champ.type.getKind()))
+                        .getQualifiedName().toString()
+                : typeChamp;
+        src.append("    private static final acces.ColumnAccessor ").append(nom).append(" = new acces.ColumnAccessor() {\n\n");
+        src.append("        @Override\n        public Object get(Object bean) {\n            return ").append(bean).append('.')
+                .append(champ.getter).append("();\n        }\n\n");
+        src.append("        @Override\n        public void set(Object bean, Object value) {\n            ").append(bean).append('.')
+                .append(champ.setter).append("((").append(boite).append(") value);\n        }\n");
+        String primitif = primitif(champ.type.getKind());
+        if (primitif != null) {
+            String suffixe = Character.toUpperCase(primitif.charAt(0)) + primitif.substring(1);
+            src.append("\n        @Override\n        public ").append(primitif).append(" get").append(suffixe)
+                    .append("(Object bean) {\n            return ").append(bean).append('.').append(champ.getter).append("();\n        }\n");
+            src.append("\n        @Override\n        public void set").append(suffixe).append("(Object bean, ").append(primitif)
+                    .append(" value) {\n            ").append(bean).append('.').append(champ.setter).append("(value);\n        }\n");
+        }
+        src.append("    };\n\n");
+    }
+
+    private static String primitif(TypeKind kind) {
+        switch (kind) {
+            case INT:
+                return "int";
+            case LONG:
+                return "long";
+            case DOUBLE:
+                return "double";
+            case BOOLEAN:
+                return "boolean";
+            default:
+                return null;
+        }
+    }
+
+    private static void sqlSource(StringBuilder src, String methode, String sql) {
+        src.append("    @Override\n    public String ").append(methode).append("() {\n        return ")
+                .append(sql == null ? "null" : litteral(sql)).append(";\n    }\n\n");
+    }
+
+    /**
+     * @return Le nom de la méthode publique {@code nom}, sans paramètre si
+     *         {@code parametre} est null, sinon avec ce seul paramètre ; null si absente
+     */
+    private String accesseur(List<ExecutableElement> methodes, String nom, TypeMirror parametre) {
+        for (ExecutableElement methode : methodes) {
+            if (!methode.getSimpleName().contentEquals(nom) || !methode.getModifiers().contains(Modifier.PUBLIC)
+                    || methode.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            if (parametre == null && methode.getParameters().isEmpty()) {
+                return nom;
+            }
+            if (parametre != null && methode.getParameters().size() == 1 && processingEnv.getTypeUtils().isSameType(
+                    processingEnv.getTypeUtils().erasure(methode.getParameters().get(0).asType()),
+                    processingEnv.getTypeUtils().erasure(parametre))) {
+                return nom;
+            }
+        }
+        return null;
+    }
+
+    private static AnnotationMirror annotation(Element element, String nom) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(nom)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return La valeur de l'attribut {@code attribut} de l'annotation, ou
+     *         null si l'élément ne la porte pas
+     */
+    private static String valeur(Element element, String nom, String attribut) {
+        AnnotationMirror mirror = annotation(element, nom);
+        if (mirror == null) {
+            return null;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entree : mirror.getElementValues().entrySet()) {
+            if (entree.getKey().getSimpleName().contentEquals(attribut)) {
+                return String.valueOf(entree.getValue().getValue());
+            }
+        }
+        return null;
+    }
+
+    private static String litteral(String valeur) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : valeur.toCharArray()) {
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
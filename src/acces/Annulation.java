@@ -0,0 +1,82 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Lien entre une tâche de {@link DAOAsync} (ou une partition d'une lecture
+ * parallèle) et la requête qu'elle exécute, pour que l'annulation de la
+ * tâche appelle {@link Statement#cancel()}. Le DAO signale chaque requête du
+ * thread courant par {@link #surveiller} ; hors de ces tâches, aucune
+ * annulation n'est installée et l'appel est sans effet.
+ */
+final class Annulation {
+
+    private static final ThreadLocal<Annulation> COURANTE = new ThreadLocal<>();
+
+    private Statement statement;
+    private boolean annulee;
+
+    void installer() {
+        COURANTE.set(this);
+    }
+
+    static void retirer() {
+        COURANTE.remove();
+    }
+
+    /**
+     * Signale la requête sur le point d'être exécutée par le thread courant.
+     *
+     * @throws SQLException Si la tâche a déjà été annulée
+     */
+    static void surveiller(Statement stmt) throws SQLException {
+        Annulation annulation = COURANTE.get();
+        if (annulation != null) {
+            annulation.debut(stmt);
+        }
+    }
+
+    /**
+     * Signale la fin de la requête du thread courant.
+     */
+    static void liberer() {
+        Annulation annulation = COURANTE.get();
+        if (annulation != null) {
+            annulation.fin();
+        }
+    }
+
+    private synchronized void debut(Statement stmt) throws SQLException {
+        if (annulee) {
+            throw new SQLException("Requête annulée");
+        }
+        statement = stmt;
+    }
+
+    private synchronized void fin() {
+        statement = null;
+    }
+
+    /**
+     * Annule la requête en cours, et les suivantes de la tâche.
+     */
+    void annuler() {
+        Statement enCours;
+        synchronized (this) {
+            annulee = true;
+            enCours = statement;
+        }
+        if (enCours != null) {
+            try {
+                enCours.cancel();
+            } catch (SQLException e) {
+                // La requête a pu se terminer entre-temps
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Résultat d'une écriture par lots ({@code insertAll}, {@code updateAll},
+ * {@code deleteAll}) : le nombre de lignes modifiées rapporté par le driver
+ * pour chaque lot envoyé.
+ */
+public final class BatchResult {
+
+    private final List<int[]> updateCounts = new ArrayList<>();
+    private int objets;
+
+    void ajouter(int[] counts, int objetsDuLot) {
+        updateCounts.add(counts);
+        objets += objetsDuLot;
+    }
+
+    /**
+     * @return Le nombre de lots envoyés à la base
+     */
+    public int getBatchCount() {
+        return updateCounts.size();
+    }
+
+    /**
+     * @return Le nombre d'objets écrits
+     */
+    public int getObjectCount() {
+        return objets;
+    }
+
+    /**
+     * @return Pour chaque lot, le tableau retourné par {@code executeBatch}
+     *         (une valeur par requête du lot)
+     */
+    public List<int[]> getUpdateCounts() {
+        return Collections.unmodifiableList(updateCounts);
+    }
+
+    /**
+     * @return Le total des lignes modifiées ; les requêtes pour lesquelles le
+     *         driver répond {@link Statement#SUCCESS_NO_INFO} ne sont pas comptées
+     */
+    public long getTotalUpdateCount() {
+        long total = 0;
+        for (int[] counts : updateCounts) {
+            for (int count : counts) {
+                if (count > 0) {
+                    total += count;
+                }
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult[lots=" + getBatchCount() + ", objets=" + objets + ", lignes=" + getTotalUpdateCount() + "]";
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package acces;
+
+/**
+ * Accès en lecture et écriture à un champ d'un objet mappé.
+ * Les variantes primitives évitent le boxing quand l'implémentation le permet.
+ */
+public interface ColumnAccessor {
+
+    Object get(Object bean) throws Exception;
+
+    void set(Object bean, Object value) throws Exception;
+
+    default int getInt(Object bean) throws Exception {
+        return ((Number) get(bean)).intValue();
+    }
+
+    default void setInt(Object bean, int value) throws Exception {
+        set(bean, value);
+    }
+
+    default long getLong(Object bean) throws Exception {
+        return ((Number) get(bean)).longValue();
+    }
+
+    default void setLong(Object bean, long value) throws Exception {
+        set(bean, value);
+    }
+
+    default double getDouble(Object bean) throws Exception {
+        return ((Number) get(bean)).doubleValue();
+    }
+
+    default void setDouble(Object bean, double value) throws Exception {
+        set(bean, value);
+    }
+
+    default boolean getBoolean(Object bean) throws Exception {
+        return (Boolean) get(bean);
+    }
+
+    default void setBoolean(Object bean, boolean value) throws Exception {
+        set(bean, value);
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Résultat en colonnes d'une lecture analytique : une colonne par tableau
+ * primitif, sans objet par ligne ni boxing. Les entiers et booléens (1/0)
+ * sont en {@code int[]}, les {@code long} et les dates (millisecondes depuis
+ * l'epoch) en {@code long[]}, les décimaux en {@code double[]} et les chaînes
+ * et enum en codes {@code int[]} d'un dictionnaire. Un NULL SQL laisse 0 (ou
+ * le code -1) dans le tableau et est noté dans {@link #getNulls(String)}.
+ *
+ * Les tableaux rendus ne sont pas copiés : ils se parcourent ou se réduisent
+ * directement, y compris en parallèle.
+ * @example
+ * ```java
+ColumnBatch ventes = dao.findAllColumnar(connection, Vente.class, "magasin", "montant");
+double[] montants = ventes.getDoubles("montant");
+double total = ventes.doubleStream("montant").parallel().sum();
+int[] magasins = ventes.getCodes("magasin");
+double[] parMagasin = new double[ventes.getDictionary("magasin").length];
+for (int i = 0; i < ventes.size(); i++) {
+    parMagasin[magasins[i]] += montants[i];
+}
+ * ```
+ */
+public final class ColumnBatch {
+
+    /**
+     * Stockage d'une colonne.
+     */
+    public enum Type {
+        INT, LONG, DOUBLE, STRING
+    }
+
+    private final String[] noms;
+    private final String[] champs;
+    private final Type[] types;
+    private final Object[] valeurs;
+    private final String[][] dictionnaires;
+    private final BitSet[] nuls;
+    private final int lignes;
+
+    private ColumnBatch(Remplissage remplissage) {
+        int n = remplissage.colonnes.length;
+        this.lignes = remplissage.lignes;
+        this.noms = new String[n];
+        this.champs = new String[n];
+        this.types = remplissage.types;
+        this.valeurs = new Object[n];
+        this.dictionnaires = new String[n][];
+        this.nuls = remplissage.nuls;
+        for (int c = 0; c < n; c++) {
+            noms[c] = remplissage.colonnes[c].getNom();
+            champs[c] = remplissage.colonnes[c].getField().getName();
+            switch (types[c]) {
+                case INT:
+                    valeurs[c] = Arrays.copyOf(remplissage.ints[c], lignes);
+                    break;
+                case LONG:
+                    valeurs[c] = Arrays.copyOf(remplissage.longs[c], lignes);
+                    break;
+                case DOUBLE:
+                    valeurs[c] = Arrays.copyOf(remplissage.doubles[c], lignes);
+                    break;
+                default:
+                    valeurs[c] = Arrays.copyOf(remplissage.ints[c], lignes);
+                    dictionnaires[c] = remplissage.dictionnaires.get(c).toArray(new String[0]);
+            }
+        }
+    }
+
+    /**
+     * @return Le type de stockage d'un champ de ce type, ou null s'il n'a
+     *         pas de représentation en colonne
+     */
+    static Type type(Class<?> type) {
+        if (type == int.class || type == Integer.class || type == short.class || type == Short.class
+                || type == byte.class || type == Byte.class || type == boolean.class || type == Boolean.class) {
+            return Type.INT;
+        } else if (type == long.class || type == Long.class || type == Timestamp.class || type == java.util.Date.class
+                || type == java.sql.Date.class || type == Instant.class || type == LocalDate.class
+                || type == LocalDateTime.class || type == OffsetDateTime.class) {
+            return Type.LONG;
+        } else if (type == double.class || type == Double.class || type == float.class || type == Float.class
+                || type == BigDecimal.class) {
+            return Type.DOUBLE;
+        } else if (type == String.class || type.isEnum()) {
+            return Type.STRING;
+        }
+        return null;
+    }
+
+    /**
+     * @return Le nombre de lignes
+     */
+    public int size() {
+        return lignes;
+    }
+
+    /**
+     * @return Les noms des colonnes, dans l'ordre de lecture
+     */
+    public List<String> getColumns() {
+        return Collections.unmodifiableList(Arrays.asList(noms));
+    }
+
+    /**
+     * @param colonne Un nom de colonne ou de champ
+     * @return Le stockage de la colonne
+     */
+    public Type getType(String colonne) {
+        return types[indice(colonne)];
+    }
+
+    /**
+     * @return Les valeurs d'une colonne {@link Type#INT} (booléens en 1/0)
+     */
+    public int[] getInts(String colonne) {
+        return (int[]) valeurs(colonne, Type.INT);
+    }
+
+    /**
+     * @return Les valeurs d'une colonne {@link Type#LONG} (dates en millisecondes depuis l'epoch)
+     */
+    public long[] getLongs(String colonne) {
+        return (long[]) valeurs(colonne, Type.LONG);
+    }
+
+    /**
+     * @return Les valeurs d'une colonne {@link Type#DOUBLE}
+     */
+    public double[] getDoubles(String colonne) {
+        return (double[]) valeurs(colonne, Type.DOUBLE);
+    }
+
+    /**
+     * @return Les codes d'une colonne {@link Type#STRING} : l'indice de la
+     *         valeur dans {@link #getDictionary(String)}, -1 pour NULL
+     */
+    public int[] getCodes(String colonne) {
+        return (int[]) valeurs(colonne, Type.STRING);
+    }
+
+    /**
+     * @return Les valeurs distinctes d'une colonne {@link Type#STRING}, dans
+     *         l'ordre de première apparition
+     */
+    public String[] getDictionary(String colonne) {
+        valeurs(colonne, Type.STRING);
+        return dictionnaires[indice(colonne)];
+    }
+
+    /**
+     * @return La valeur d'une colonne {@link Type#STRING} à une ligne
+     */
+    public String getString(String colonne, int ligne) {
+        int code = getCodes(colonne)[ligne];
+        return code < 0 ? null : dictionnaires[indice(colonne)][code];
+    }
+
+    /**
+     * @return Les lignes où la colonne est NULL (copie)
+     */
+    public BitSet getNulls(String colonne) {
+        return (BitSet) nuls[indice(colonne)].clone();
+    }
+
+    public boolean isNull(String colonne, int ligne) {
+        return nuls[indice(colonne)].get(ligne);
+    }
+
+    /**
+     * @return Les indices de lignes, à parcourir éventuellement en parallèle
+     */
+    public IntStream rows() {
+        return IntStream.range(0, lignes);
+    }
+
+    public IntStream intStream(String colonne) {
+        return Arrays.stream(getInts(colonne));
+    }
+
+    public LongStream longStream(String colonne) {
+        return Arrays.stream(getLongs(colonne));
+    }
+
+    public DoubleStream doubleStream(String colonne) {
+        return Arrays.stream(getDoubles(colonne));
+    }
+
+    private Object valeurs(String colonne, Type attendu) {
+        int c = indice(colonne);
+        if (types[c] != attendu) {
+            throw new IllegalArgumentException("Colonne " + colonne + " de type " + types[c] + ", pas " + attendu);
+        }
+        return valeurs[c];
+    }
+
+    private int indice(String colonne) {
+        for (int c = 0; c < noms.length; c++) {
+            if (noms[c].equalsIgnoreCase(colonne) || champs[c].equals(colonne)) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException("Colonne absente du résultat : " + colonne);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnBatch[lignes=" + lignes + ", colonnes=" + Arrays.toString(noms) + "]";
+    }
+
+    /**
+     * Remplit les tableaux d'un résultat ligne par ligne ; les colonnes du
+     * résultat sont dans l'ordre de {@code colonnes}.
+     */
+    static final class Remplissage {
+
+        // Getter JDBC de chaque colonne, choisi une fois
+        private static final int ENTIER = 0;
+        private static final int BOOLEEN = 1;
+        private static final int LONG = 2;
+        private static final int DATE = 3;
+        private static final int DECIMAL = 4;
+        private static final int CHAINE = 5;
+
+        private final ColumnMetadata[] colonnes;
+        private final Type[] types;
+        private final int[] lectures;
+        private final int[][] ints;
+        private final long[][] longs;
+        private final double[][] doubles;
+        private final List<Map<String, Integer>> codes;
+        private final List<List<String>> dictionnaires;
+        private final BitSet[] nuls;
+        private int capacite = 1024;
+        private int lignes;
+
+        Remplissage(List<ColumnMetadata> colonnes) {
+            int n = colonnes.size();
+            this.colonnes = colonnes.toArray(new ColumnMetadata[0]);
+            this.types = new Type[n];
+            this.lectures = new int[n];
+            this.ints = new int[n][];
+            this.longs = new long[n][];
+            this.doubles = new double[n][];
+            this.codes = new ArrayList<>(Collections.nCopies(n, null));
+            this.dictionnaires = new ArrayList<>(Collections.nCopies(n, null));
+            this.nuls = new BitSet[n];
+            for (int c = 0; c < n; c++) {
+                types[c] = type(this.colonnes[c].getType());
+                nuls[c] = new BitSet();
+                Class<?> type = this.colonnes[c].getType();
+                switch (types[c]) {
+                    case INT:
+                        ints[c] = new int[capacite];
+                        lectures[c] = type == boolean.class || type == Boolean.class ? BOOLEEN : ENTIER;
+                        break;
+                    case LONG:
+                        longs[c] = new long[capacite];
+                        lectures[c] = type == long.class || type == Long.class ? LONG : DATE;
+                        break;
+                    case DOUBLE:
+                        doubles[c] = new double[capacite];
+                        lectures[c] = DECIMAL;
+                        break;
+                    default:
+                        ints[c] = new int[capacite];
+                        lectures[c] = CHAINE;
+                        codes.set(c, new HashMap<>());
+                        dictionnaires.set(c, new ArrayList<>());
+                }
+            }
+        }
+
+        void ajouter(ResultSet rs) throws Exception {
+            if (lignes == capacite) {
+                agrandir();
+            }
+            for (int c = 0; c < types.length; c++) {
+                int index = c + 1;
+                switch (lectures[c]) {
+                    case ENTIER:
+                        ints[c][lignes] = rs.getInt(index);
+                        break;
+                    case BOOLEEN:
+                        ints[c][lignes] = rs.getBoolean(index) ? 1 : 0;
+                        break;
+                    case LONG:
+                        longs[c][lignes] = rs.getLong(index);
+                        break;
+                    case DATE:
+                        Timestamp date = rs.getTimestamp(index);
+                        longs[c][lignes] = date == null ? 0 : date.getTime();
+                        break;
+                    case DECIMAL:
+                        doubles[c][lignes] = rs.getDouble(index);
+                        break;
+                    default:
+                        String valeur = rs.getString(index);
+                        ints[c][lignes] = valeur == null ? -1 : coder(c, valeur);
+                }
+                if (rs.wasNull()) {
+                    nuls[c].set(lignes);
+                }
+            }
+            lignes++;
+        }
+
+        private int coder(int c, String valeur) {
+            Integer code = codes.get(c).get(valeur);
+            if (code == null) {
+                List<String> dictionnaire = dictionnaires.get(c);
+                code = dictionnaire.size();
+                dictionnaire.add(valeur);
+                codes.get(c).put(valeur, code);
+            }
+            return code;
+        }
+
+        private void agrandir() {
+            capacite *= 2;
+            for (int c = 0; c < types.length; c++) {
+                if (ints[c] != null) {
+                    ints[c] = Arrays.copyOf(ints[c], capacite);
+                } else if (longs[c] != null) {
+                    longs[c] = Arrays.copyOf(longs[c], capacite);
+                } else {
+                    doubles[c] = Arrays.copyOf(doubles[c], capacite);
+                }
+            }
+        }
+
+        int size() {
+            return lignes;
+        }
+
+        ColumnBatch terminer() {
+            return new ColumnBatch(this);
+        }
+    }
+}
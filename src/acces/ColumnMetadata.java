@@ -0,0 +1,234 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import annotation.Colonne;
+import annotation.Lazy;
+import annotation.PrimaryKey;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * Description d'un champ mappé vers une colonne : nom de colonne, type,
+ * accesseurs et lecture de valeur. Calculée une seule fois par
+ * {@link EntityMetadata}.
+ */
+public final class ColumnMetadata {
+
+    // Genre du champ, utilisé pour choisir le setter JDBC typé
+    static final int OBJET = 0;
+    static final int INT = 1;
+    static final int LONG = 2;
+    static final int DOUBLE = 3;
+    static final int BOOLEAN = 4;
+    static final int STRING = 5;
+    static final int TIMESTAMP = 6;
+    static final int DATE = 7;
+
+    private final Field field;
+    private final String nom;
+    private final Class<?> type;
+    private final int genre;
+    private final boolean primaryKey;
+    private final boolean lazy;
+    private final Method getter;
+    private final Method setter;
+    private final ReflectionAccessor reflectionAccessor;
+    private volatile ColumnAccessor generatedAccessor;
+
+    ColumnMetadata(Class<?> clazz, Field field) {
+        this.field = field;
+        this.type = field.getType();
+        this.genre = genre(type);
+        Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
+        this.nom = colonneAnnotation != null ? colonneAnnotation.nom() : field.getName();
+        this.primaryKey = field.getAnnotation(PrimaryKey.class) != null;
+        this.lazy = field.getAnnotation(Lazy.class) != null;
+        String suffixe = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        this.getter = findMethod(clazz, "get" + suffixe);
+        this.setter = findMethod(clazz, "set" + suffixe, type);
+        this.reflectionAccessor = new ReflectionAccessor(this);
+    }
+
+    private static int genre(Class<?> type) {
+        if (type == int.class) {
+            return INT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == double.class) {
+            return DOUBLE;
+        } else if (type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == String.class) {
+            return STRING;
+        } else if (type == Timestamp.class) {
+            return TIMESTAMP;
+        } else if (type == java.sql.Date.class) {
+            return DATE;
+        }
+        return OBJET;
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        try {
+            return clazz.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            // Signalé à l'utilisation, comme avant la mise en cache
+            return null;
+        }
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    int getGenre() {
+        return genre;
+    }
+
+    public boolean isPrimaryKey() {
+        return primaryKey;
+    }
+
+    /**
+     * @return Vrai si la colonne est annotée {@code @Lazy} : hors des SELECT générés
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public boolean isStatic() {
+        return Modifier.isStatic(field.getModifiers());
+    }
+
+    public boolean isFinal() {
+        return Modifier.isFinal(field.getModifiers());
+    }
+
+    public Method getGetter() throws NoSuchMethodException {
+        if (getter == null) {
+            throw new NoSuchMethodException(field.getDeclaringClass().getName() + ".get"
+                    + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1) + "()");
+        }
+        return getter;
+    }
+
+    public Method getSetter() throws NoSuchMethodException {
+        if (setter == null) {
+            throw new NoSuchMethodException(field.getDeclaringClass().getName() + ".set"
+                    + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1)
+                    + "(" + type.getName() + ")");
+        }
+        return setter;
+    }
+
+    /**
+     * Remplace l'accesseur {@link MappingMode#GENERATED} par celui d'une
+     * {@link EntityBinding} générée à la compilation.
+     */
+    void setAccesseurCompile(ColumnAccessor accesseur) {
+        this.generatedAccessor = accesseur;
+    }
+
+    /**
+     * Retourne l'accesseur du champ pour le moteur demandé. L'accesseur
+     * généré n'est construit qu'au premier appel, sauf si la classe a une
+     * {@link EntityBinding} générée à la compilation.
+     *
+     * @param mode Le moteur de mapping
+     * @return L'accesseur du champ
+     */
+    public ColumnAccessor getAccesseur(MappingMode mode) {
+        if (mode == MappingMode.REFLECTION) {
+            return reflectionAccessor;
+        }
+        ColumnAccessor accesseur = generatedAccessor;
+        if (accesseur == null) {
+            synchronized (this) {
+                accesseur = generatedAccessor;
+                if (accesseur == null) {
+                    accesseur = new GeneratedAccessor(this, getter, setter);
+                    generatedAccessor = accesseur;
+                }
+            }
+        }
+        return accesseur;
+    }
+
+    /**
+     * Lie la valeur du champ de {@code bean} au paramètre {@code index} d'une
+     * requête préparée, avec le setter JDBC correspondant au type du champ.
+     *
+     * @param stmt La requête préparée
+     * @param index L'index du paramètre (à partir de 1)
+     * @param bean L'objet source
+     * @param accesseur L'accesseur du champ
+     */
+    void lier(PreparedStatement stmt, int index, Object bean, ColumnAccessor accesseur) throws Exception {
+        switch (genre) {
+            case INT:
+                stmt.setInt(index, accesseur.getInt(bean));
+                break;
+            case LONG:
+                stmt.setLong(index, accesseur.getLong(bean));
+                break;
+            case DOUBLE:
+                stmt.setDouble(index, accesseur.getDouble(bean));
+                break;
+            case BOOLEAN:
+                stmt.setBoolean(index, accesseur.getBoolean(bean));
+                break;
+            default:
+                lierValeur(stmt, index, accesseur.get(bean));
+        }
+    }
+
+    /**
+     * @param typeSql Le type JDBC de la colonne lue
+     * @return La lecture de cette colonne vers le champ, choisie une fois
+     *         par couple de types par le {@link ConverterRegistry}
+     */
+    ColumnReader lecteur(int typeSql) {
+        return ConverterRegistry.lecteur(typeSql, type);
+    }
+
+    /**
+     * Affecte au champ de {@code bean} la colonne {@code index} de la ligne
+     * courante, avec les mêmes conversions que la lecture des méthodes find*.
+     */
+    void affecter(ResultSet rs, int index, Object bean, ColumnAccessor accesseur) throws Exception {
+        lecteur(rs.getMetaData().getColumnType(index)).lire(rs, index, bean, accesseur);
+    }
+
+    /**
+     * Lie une valeur quelconque à un paramètre de requête préparée.
+     * Un java.util.Date simple est envoyé comme Timestamp.
+     */
+    static void lierValeur(PreparedStatement stmt, int index, Object value) throws SQLException {
+        if (value == null) {
+            stmt.setNull(index, Types.NULL);
+        } else if (value instanceof java.util.Date && !(value instanceof java.sql.Date)
+                && !(value instanceof Timestamp) && !(value instanceof Time)) {
+            stmt.setTimestamp(index, new Timestamp(((java.util.Date) value).getTime()));
+        } else {
+            stmt.setObject(index, value);
+        }
+    }
+}
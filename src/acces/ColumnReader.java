@@ -0,0 +1,17 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package acces;
+
+import java.sql.ResultSet;
+
+/**
+ * Lit une colonne de la ligne courante et l'affecte à un champ, avec le
+ * getter JDBC et la conversion choisis une fois par {@link ConverterRegistry}.
+ */
+@FunctionalInterface
+interface ColumnReader {
+
+    void lire(ResultSet rs, int index, Object bean, ColumnAccessor accesseur) throws Exception;
+}
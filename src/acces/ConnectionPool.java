@@ -0,0 +1,719 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Pool de connexions JDBC léger, utilisable partout où un {@link DataSource}
+ * est attendu ({@link DAORead#setDataSource}, {@link DAOAsync}).
+ *
+ * L'emprunt et le retour ne prennent aucun verrou tant qu'une connexion est
+ * libre : un permis de sémaphore (compare-and-set) puis une pile
+ * concurrente, la connexion la plus récemment rendue étant reprise en
+ * premier. Quand les {@code maxSize} connexions sont prises, l'emprunt
+ * attend au plus {@code connectionTimeout}.
+ *
+ * Une connexion restée libre plus de {@code validationInterval} est validée
+ * ({@link Connection#isValid}) avant d'être prêtée ; une connexion plus
+ * vieille que {@code maxLifetime} est fermée et remplacée. Si
+ * {@code leakDetectionThreshold} est positif, une connexion empruntée depuis
+ * plus longtemps est signalée (avec la pile de l'emprunt) dans le journal
+ * {@code acces.ConnectionPool}.
+ *
+ * Chaque emprunt reçoit sa propre connexion logique : après {@code close()},
+ * qui rend la connexion physique (remise en autocommit, une transaction en
+ * cours étant annulée ; lecture seule, isolation, catalogue, schéma,
+ * holdability et timeout réseau changés par l'emprunteur sont rétablis),
+ * elle est fermée pour l'appelant ({@code isClosed()}
+ * rend true, les autres appels lèvent une {@link SQLException}). Le
+ * {@link StatementCache} range ses requêtes par connexion physique : elles
+ * restent valables d'un emprunt à l'autre.
+ *
+ * ```java
+ * ConnectionPool pool = new ConnectionPool("jdbc:postgresql://localhost/base", "user", "secret", 20);
+ * pool.setLeakDetectionThreshold(10_000);
+ * DAO_CUD dao = new DAO_CUD();
+ * dao.setDataSource(pool);
+ * List<Client> clients = dao.findAll(new Client());
+ * ```
+ */
+public final class ConnectionPool implements DataSource, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * Ouvre une connexion physique.
+     */
+    @FunctionalInterface
+    private interface Fabrique {
+        Connection ouvrir() throws SQLException;
+    }
+
+    private final Fabrique fabrique;
+    private final int maxSize;
+    private final Semaphore permis;
+    private final ConcurrentLinkedDeque<Entree> libres = new ConcurrentLinkedDeque<>();
+    private final Set<Entree> toutes = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService entretien;
+    private volatile long connectionTimeoutMillis = 30_000;
+    private volatile long validationIntervalNanos = TimeUnit.SECONDS.toNanos(1);
+    private volatile int validationTimeoutSeconds = 5;
+    private volatile long maxLifetimeNanos = TimeUnit.MINUTES.toNanos(30);
+    private volatile long leakDetectionThresholdNanos;
+    private volatile boolean ferme;
+
+    private final LongAdder emprunts = new LongAdder();
+    private final LongAdder attenteNanos = new LongAdder();
+    private final AtomicLong attenteMaxNanos = new AtomicLong();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder creations = new LongAdder();
+    private final LongAdder retraits = new LongAdder();
+    private final LongAdder fuites = new LongAdder();
+
+    /**
+     * @param url L'URL JDBC
+     * @param user L'utilisateur
+     * @param password Le mot de passe
+     * @param maxSize Nombre maximum de connexions ouvertes
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize) {
+        this(() -> DriverManager.getConnection(url, user, password), maxSize);
+    }
+
+    /**
+     * Met en pool les connexions d'un autre {@link DataSource} (celui du driver,
+     * par exemple {@code PGSimpleDataSource}).
+     *
+     * @param source La source des connexions physiques
+     * @param maxSize Nombre maximum de connexions ouvertes
+     */
+    public ConnectionPool(DataSource source, int maxSize) {
+        this(source::getConnection, maxSize);
+    }
+
+    private ConnectionPool(Fabrique fabrique, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Taille de pool invalide : " + maxSize);
+        }
+        this.fabrique = fabrique;
+        this.maxSize = maxSize;
+        this.permis = new Semaphore(maxSize);
+        this.entretien = Executors.newSingleThreadScheduledExecutor(tache -> {
+            Thread thread = new Thread(tache, "dao-pool-entretien");
+            thread.setDaemon(true);
+            return thread;
+        });
+        entretien.scheduleWithFixedDelay(this::entretenir, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getConnectionTimeout() {
+        return connectionTimeoutMillis;
+    }
+
+    /**
+     * @param millis Attente maximum d'une connexion quand le pool est plein
+     *        (30 s par défaut), après quoi l'emprunt lève une {@link SQLTimeoutException}
+     */
+    public void setConnectionTimeout(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Délai négatif : " + millis);
+        }
+        this.connectionTimeoutMillis = millis;
+    }
+
+    public long getValidationInterval() {
+        return TimeUnit.NANOSECONDS.toMillis(validationIntervalNanos);
+    }
+
+    /**
+     * @param millis Durée d'inactivité au-delà de laquelle une connexion est
+     *        validée avant d'être prêtée (1 s par défaut, 0 pour toujours valider)
+     */
+    public void setValidationInterval(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Intervalle négatif : " + millis);
+        }
+        this.validationIntervalNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * @param secondes Délai accordé à {@link Connection#isValid} (5 s par défaut)
+     */
+    public void setValidationTimeout(int secondes) {
+        if (secondes < 0) {
+            throw new IllegalArgumentException("Délai négatif : " + secondes);
+        }
+        this.validationTimeoutSeconds = secondes;
+    }
+
+    public long getMaxLifetime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLifetimeNanos);
+    }
+
+    /**
+     * @param millis Durée de vie maximum d'une connexion physique (30 min par
+     *        défaut, 0 pour illimitée) ; chaque connexion expire un peu plus tôt
+     *        (jusqu'à 2,5 %) pour que le pool ne se renouvelle pas d'un coup
+     */
+    public void setMaxLifetime(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Durée de vie négative : " + millis);
+        }
+        this.maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public long getLeakDetectionThreshold() {
+        return TimeUnit.NANOSECONDS.toMillis(leakDetectionThresholdNanos);
+    }
+
+    /**
+     * @param millis Durée d'emprunt au-delà de laquelle une connexion est
+     *        signalée comme fuite (0 par défaut : détection désactivée, la pile
+     *        de chaque emprunt n'est alors pas relevée)
+     */
+    public void setLeakDetectionThreshold(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Seuil négatif : " + millis);
+        }
+        this.leakDetectionThresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Emprunte une connexion, à rendre par {@link Connection#close()}.
+     *
+     * @throws SQLTimeoutException Si aucune connexion ne s'est libérée à temps
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ferme) {
+            throw new SQLException("Pool de connexions fermé");
+        }
+        long debut = System.nanoTime();
+        try {
+            if (!permis.tryAcquire(connectionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                expirations.increment();
+                throw new SQLTimeoutException("Aucune connexion disponible après " + connectionTimeoutMillis
+                        + " ms (" + maxSize + " empruntées)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Attente de connexion interrompue", e);
+        }
+        try {
+            Entree entree = prendreLibre();
+            if (entree == null) {
+                Connection physique = fabrique.ouvrir();
+                try {
+                    entree = new Entree(physique);
+                } catch (SQLException | RuntimeException e) {
+                    physique.close();
+                    throw e;
+                }
+                toutes.add(entree);
+                creations.increment();
+            }
+            long attente = System.nanoTime() - debut;
+            emprunts.increment();
+            attenteNanos.add(attente);
+            attenteMaxNanos.accumulateAndGet(attente, Math::max);
+            return entree.emprunter(leakDetectionThresholdNanos > 0 ? new Throwable("Connexion empruntée ici") : null);
+        } catch (SQLException | RuntimeException | Error e) {
+            permis.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Une connexion libre encore utilisable, ou null s'il n'y en a pas
+     */
+    private Entree prendreLibre() {
+        Entree entree;
+        while ((entree = libres.pollFirst()) != null) {
+            long maintenant = System.nanoTime();
+            if (entree.expiree(maintenant)) {
+                retirer(entree);
+            } else if (maintenant - entree.rendueLe >= validationIntervalNanos && !entree.valide()) {
+                retirer(entree);
+            } else {
+                return entree;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reprend une connexion rendue par l'appelant.
+     */
+    private void rendre(Entree entree) {
+        if (!entree.empruntee.compareAndSet(true, false)) {
+            return;
+        }
+        entree.courante = null;
+        try {
+            entree.reinitialiser();
+            if (ferme || entree.cassee || entree.expiree(System.nanoTime())) {
+                retirer(entree);
+            } else {
+                entree.rendueLe = System.nanoTime();
+                libres.offerFirst(entree);
+            }
+        } catch (SQLException e) {
+            retirer(entree);
+        } finally {
+            permis.release();
+        }
+    }
+
+    /**
+     * @return La connexion physique d'une connexion prêtée par un pool, ou
+     *         {@code co} elle-même si elle ne vient pas d'un pool
+     */
+    static Connection physique(Connection co) {
+        if (Proxy.isProxyClass(co.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(co);
+            if (handler instanceof ConnexionPretee) {
+                return ((ConnexionPretee) handler).entree.physique;
+            }
+        }
+        return co;
+    }
+
+    private void retirer(Entree entree) {
+        if (toutes.remove(entree)) {
+            retraits.increment();
+            try {
+                entree.physique.close();
+            } catch (SQLException e) {
+                // La connexion est abandonnée, l'erreur de fermeture est sans effet
+            }
+        }
+    }
+
+    /**
+     * Tâche de fond : ferme les connexions libres expirées et signale les fuites.
+     */
+    private void entretenir() {
+        long maintenant = System.nanoTime();
+        for (Entree entree : libres) {
+            // remove échoue si un emprunt vient de prendre la connexion
+            if (entree.expiree(maintenant) && libres.remove(entree)) {
+                retirer(entree);
+            }
+        }
+        long seuil = leakDetectionThresholdNanos;
+        if (seuil > 0) {
+            for (Entree entree : toutes) {
+                Throwable trace = entree.traceEmprunt;
+                if (entree.empruntee.get() && trace != null && !entree.signalee
+                        && maintenant - entree.empruntLe > seuil) {
+                    entree.signalee = true;
+                    fuites.increment();
+                    LOGGER.log(Level.WARNING, "Connexion empruntée depuis plus de "
+                            + TimeUnit.NANOSECONDS.toMillis(seuil) + " ms, fuite probable", trace);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Le nombre de connexions empruntées
+     */
+    public int getActive() {
+        return Math.max(0, getTotal() - getIdle());
+    }
+
+    /**
+     * @return Le nombre de connexions ouvertes et libres
+     */
+    public int getIdle() {
+        return libres.size();
+    }
+
+    /**
+     * @return Le nombre de connexions physiques ouvertes
+     */
+    public int getTotal() {
+        return toutes.size();
+    }
+
+    /**
+     * @return Le nombre d'emprunts en attente d'une connexion
+     */
+    public int getPending() {
+        return permis.getQueueLength();
+    }
+
+    public long getBorrows() {
+        return emprunts.sum();
+    }
+
+    /**
+     * @return Le nombre d'emprunts abandonnés après {@code connectionTimeout}
+     */
+    public long getTimeouts() {
+        return expirations.sum();
+    }
+
+    public long getCreated() {
+        return creations.sum();
+    }
+
+    /**
+     * @return Le nombre de connexions fermées par le pool (expirées, invalides, cassées)
+     */
+    public long getRetired() {
+        return retraits.sum();
+    }
+
+    public long getLeaks() {
+        return fuites.sum();
+    }
+
+    /**
+     * @return Le temps total passé à attendre une connexion, création comprise
+     */
+    public long getTotalWaitNanos() {
+        return attenteNanos.sum();
+    }
+
+    public long getMaxWaitNanos() {
+        return attenteMaxNanos.get();
+    }
+
+    public double getAverageWaitMillis() {
+        long n = emprunts.sum();
+        return n == 0 ? 0 : attenteNanos.sum() / 1e6 / n;
+    }
+
+    /**
+     * Remet les compteurs à zéro (les connexions ne sont pas touchées).
+     */
+    public void resetMetrics() {
+        emprunts.reset();
+        attenteNanos.reset();
+        attenteMaxNanos.set(0);
+        expirations.reset();
+        creations.reset();
+        retraits.reset();
+        fuites.reset();
+    }
+
+    /**
+     * Ferme les connexions libres ; celles encore empruntées sont fermées à
+     * leur retour. Les emprunts suivants échouent.
+     */
+    @Override
+    public void close() {
+        ferme = true;
+        entretien.shutdownNow();
+        Entree entree;
+        while ((entree = libres.pollFirst()) != null) {
+            retirer(entree);
+        }
+    }
+
+    public boolean isClosed() {
+        return ferme;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Le pool utilise les identifiants donnés à sa construction");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // Le pool journalise par java.util.logging
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        setConnectionTimeout(TimeUnit.SECONDS.toMillis(seconds));
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return (int) TimeUnit.MILLISECONDS.toSeconds(connectionTimeoutMillis);
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return LOGGER;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Pas un " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool[max=" + maxSize + ", actives=" + getActive() + ", libres=" + getIdle()
+                + ", attente=" + getPending() + ", emprunts=" + getBorrows()
+                + String.format(", attenteMoyenne=%.3f ms", getAverageWaitMillis())
+                + ", timeouts=" + getTimeouts() + ", fuites=" + getLeaks() + "]";
+    }
+
+    /**
+     * Une connexion physique du pool.
+     */
+    private final class Entree {
+
+        final Connection physique;
+        final long creeLe = System.nanoTime();
+        final double marge = ThreadLocalRandom.current().nextDouble(0.025);
+        final AtomicBoolean empruntee = new AtomicBoolean();
+        volatile Connection courante;
+        volatile long rendueLe = creeLe;
+        volatile long empruntLe;
+        volatile Throwable traceEmprunt;
+        volatile boolean signalee;
+        volatile boolean cassee;
+        // État de session à l'ouverture, rétabli au retour si l'emprunteur l'a changé
+        final boolean readOnly;
+        final int isolation;
+        final String catalog;
+        final String schema;
+        final int holdability;
+        final int networkTimeout;
+        volatile boolean etatModifie;
+
+        Entree(Connection physique) throws SQLException {
+            this.physique = physique;
+            this.readOnly = physique.isReadOnly();
+            this.isolation = physique.getTransactionIsolation();
+            this.catalog = physique.getCatalog();
+            this.holdability = physique.getHoldability();
+            String schemaInitial;
+            int timeoutInitial;
+            try {
+                schemaInitial = physique.getSchema();
+            } catch (SQLFeatureNotSupportedException e) {
+                schemaInitial = null;
+            }
+            try {
+                timeoutInitial = physique.getNetworkTimeout();
+            } catch (SQLFeatureNotSupportedException e) {
+                timeoutInitial = -1;
+            }
+            this.schema = schemaInitial;
+            this.networkTimeout = timeoutInitial;
+        }
+
+        /**
+         * @return La connexion logique de ce nouvel emprunt
+         */
+        Connection emprunter(Throwable trace) {
+            empruntLe = System.nanoTime();
+            traceEmprunt = trace;
+            signalee = false;
+            Connection connexion = (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new ConnexionPretee(this));
+            courante = connexion;
+            empruntee.set(true);
+            return connexion;
+        }
+
+        boolean expiree(long maintenant) {
+            long duree = maxLifetimeNanos;
+            return duree > 0 && maintenant - creeLe > duree - (long) (duree * marge);
+        }
+
+        boolean valide() {
+            try {
+                return physique.isValid(validationTimeoutSeconds);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Remet la connexion dans l'état attendu par le prochain emprunteur.
+         */
+        void reinitialiser() throws SQLException {
+            if (physique.isClosed()) {
+                throw new SQLException("Connexion fermée");
+            }
+            if (!physique.getAutoCommit()) {
+                physique.rollback();
+                physique.setAutoCommit(true);
+            }
+            physique.clearWarnings();
+            if (etatModifie) {
+                // Relu seulement après un setter : les getters du pilote peuvent interroger la base
+                if (physique.isReadOnly() != readOnly) {
+                    physique.setReadOnly(readOnly);
+                }
+                if (physique.getTransactionIsolation() != isolation) {
+                    physique.setTransactionIsolation(isolation);
+                }
+                if (catalog != null && !catalog.equals(physique.getCatalog())) {
+                    physique.setCatalog(catalog);
+                }
+                if (schema != null && !schema.equals(physique.getSchema())) {
+                    physique.setSchema(schema);
+                }
+                if (physique.getHoldability() != holdability) {
+                    physique.setHoldability(holdability);
+                }
+                if (networkTimeout >= 0 && physique.getNetworkTimeout() != networkTimeout) {
+                    physique.setNetworkTimeout(Runnable::run, networkTimeout);
+                }
+                etatModifie = false;
+            }
+        }
+
+        /**
+         * Appelle la connexion physique en notant si elle est perdue.
+         */
+        Object appeler(Object cible, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(cible, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    String etat = ((SQLException) cause).getSQLState();
+                    // Classe 08 : la connexion elle-même est perdue
+                    if (etat != null && etat.startsWith("08")) {
+                        cassee = true;
+                    }
+                }
+                throw cause;
+            }
+        }
+    }
+
+    /**
+     * La connexion logique d'un emprunt, fermée pour de bon par {@code close()}.
+     */
+    private final class ConnexionPretee implements InvocationHandler {
+
+        final Entree entree;
+        final AtomicBoolean fermee = new AtomicBoolean();
+
+        ConnexionPretee(Entree entree) {
+            this.entree = entree;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    // close() est idempotent
+                    if (fermee.compareAndSet(false, true)) {
+                        rendre(entree);
+                    }
+                    return null;
+                case "isClosed":
+                    return fermee.get() || entree.physique.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + entree.physique + (fermee.get() ? ", rendue]" : "]");
+                case "setReadOnly":
+                case "setTransactionIsolation":
+                case "setCatalog":
+                case "setSchema":
+                case "setHoldability":
+                case "setNetworkTimeout":
+                    entree.etatModifie = true;
+                    break;
+                default:
+                    break;
+            }
+            if (fermee.get()) {
+                throw new SQLException("Connexion rendue au pool");
+            }
+            Object resultat = entree.appeler(entree.physique, method, args);
+            if (resultat instanceof Statement) {
+                // getConnection() de la requête ne doit pas rendre la connexion physique
+                Class<?> type = method.getReturnType();
+                return Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class<?>[]{type},
+                        new RequetePretee(entree, resultat));
+            }
+            return resultat;
+        }
+    }
+
+    /**
+     * Une requête d'une connexion du pool. Elle peut survivre à l'emprunt
+     * (StatementCache) : {@code getConnection()} rend la connexion logique de
+     * l'emprunt en cours.
+     */
+    private static final class RequetePretee implements InvocationHandler {
+
+        final Entree entree;
+        final Object requete;
+
+        RequetePretee(Entree entree, Object requete) {
+            this.entree = entree;
+            this.requete = requete;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    Connection courante = entree.courante;
+                    if (courante == null) {
+                        throw new SQLException("Connexion rendue au pool");
+                    }
+                    return courante;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return requete.toString();
+                default:
+                    return entree.appeler(requete, method, args);
+            }
+        }
+    }
+}
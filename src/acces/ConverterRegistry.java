@@ -0,0 +1,263 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.math.BigDecimal;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.postgresql.util.PGInterval;
+
+/**
+ * Registre des conversions de lecture : pour chaque couple (type JDBC de la
+ * colonne, type du champ), le getter JDBC et la conversion sont choisis une
+ * seule fois et gardés sous forme de {@link ColumnReader}. La lecture d'une
+ * cellule est ensuite un appel direct, sans cascade de tests sur la valeur.
+ *
+ * Types pris en charge : primitifs et leurs enveloppes (getInt, getLong...
+ * sans boxing pour les primitifs), String, BigDecimal, byte[], Timestamp,
+ * java.sql.Date, Time (y compris depuis un interval PostgreSQL),
+ * java.util.Date, LocalDate, LocalDateTime, LocalTime, OffsetDateTime,
+ * Instant, Duration (depuis un interval) et les enum (par leur nom). Les
+ * autres types reçoivent la valeur de {@code getObject} telle quelle, sauf
+ * si un {@link TypeConverter} est enregistré pour eux.
+ *
+ * Les convertisseurs sont à enregistrer au démarrage, avant les lectures :
+ * un enregistrement vide les conversions déjà choisies.
+ */
+public final class ConverterRegistry {
+
+    private static final Map<Class<?>, TypeConverter<?>> parType = new ConcurrentHashMap<>();
+    private static final Map<Cle, TypeConverter<?>> parColonne = new ConcurrentHashMap<>();
+    private static final Map<Cle, ColumnReader> lecteurs = new ConcurrentHashMap<>();
+
+    private ConverterRegistry() {
+    }
+
+    /**
+     * Enregistre une conversion vers {@code type}, quel que soit le type
+     * JDBC de la colonne lue.
+     *
+     * @param type Le type du champ
+     * @param convertisseur La conversion depuis la valeur de {@code getObject}
+     * @example
+     * ```java
+    ConverterRegistry.register(Money.class, valeur -> Money.of((BigDecimal) valeur));
+     * ```
+     */
+    public static <T> void register(Class<T> type, TypeConverter<? extends T> convertisseur) {
+        parType.put(Objects.requireNonNull(type), Objects.requireNonNull(convertisseur));
+        lecteurs.clear();
+    }
+
+    /**
+     * Enregistre une conversion vers {@code type} pour les colonnes d'un
+     * type JDBC donné ; elle passe avant celle enregistrée pour le type seul.
+     *
+     * @param typeSql Le type JDBC de la colonne ({@link Types})
+     * @param type Le type du champ
+     * @param convertisseur La conversion depuis la valeur de {@code getObject}
+     */
+    public static <T> void register(int typeSql, Class<T> type, TypeConverter<? extends T> convertisseur) {
+        parColonne.put(new Cle(typeSql, Objects.requireNonNull(type)), Objects.requireNonNull(convertisseur));
+        lecteurs.clear();
+    }
+
+    /**
+     * Retire les conversions enregistrées pour {@code type}.
+     */
+    public static void unregister(Class<?> type) {
+        parType.remove(type);
+        parColonne.keySet().removeIf(cle -> cle.type == type);
+        lecteurs.clear();
+    }
+
+    /**
+     * @param typeSql Le type JDBC de la colonne
+     * @param type Le type du champ
+     * @return La lecture à utiliser pour ce couple, choisie au premier appel
+     */
+    static ColumnReader lecteur(int typeSql, Class<?> type) {
+        Cle cle = new Cle(typeSql, type);
+        ColumnReader lecteur = lecteurs.get(cle);
+        if (lecteur == null) {
+            lecteur = choisir(typeSql, type);
+            lecteurs.put(cle, lecteur);
+        }
+        return lecteur;
+    }
+
+    private static ColumnReader choisir(int typeSql, Class<?> type) {
+        TypeConverter<?> convertisseur = parColonne.get(new Cle(typeSql, type));
+        if (convertisseur == null) {
+            convertisseur = parType.get(type);
+        }
+        if (convertisseur != null) {
+            return utilisateur(convertisseur, type.isPrimitive());
+        }
+        // Primitifs : pas de boxing, un NULL SQL donne 0/false comme le getter JDBC
+        if (type == int.class) {
+            return (rs, i, bean, acc) -> acc.setInt(bean, rs.getInt(i));
+        } else if (type == long.class) {
+            return (rs, i, bean, acc) -> acc.setLong(bean, rs.getLong(i));
+        } else if (type == double.class) {
+            return (rs, i, bean, acc) -> acc.setDouble(bean, rs.getDouble(i));
+        } else if (type == boolean.class) {
+            return (rs, i, bean, acc) -> acc.setBoolean(bean, rs.getBoolean(i));
+        } else if (type == float.class) {
+            return (rs, i, bean, acc) -> acc.set(bean, rs.getFloat(i));
+        } else if (type == short.class) {
+            return (rs, i, bean, acc) -> acc.set(bean, rs.getShort(i));
+        } else if (type == byte.class) {
+            return (rs, i, bean, acc) -> acc.set(bean, rs.getByte(i));
+        }
+        // Enveloppes : null pour un NULL SQL
+        if (type == Integer.class) {
+            return (rs, i, bean, acc) -> {
+                int valeur = rs.getInt(i);
+                acc.set(bean, rs.wasNull() ? null : valeur);
+            };
+        } else if (type == Long.class) {
+            return (rs, i, bean, acc) -> {
+                long valeur = rs.getLong(i);
+                acc.set(bean, rs.wasNull() ? null : valeur);
+            };
+        } else if (type == Double.class) {
+            return (rs, i, bean, acc) -> {
+                double valeur = rs.getDouble(i);
+                acc.set(bean, rs.wasNull() ? null : valeur);
+            };
+        } else if (type == Boolean.class) {
+            return (rs, i, bean, acc) -> {
+                boolean valeur = rs.getBoolean(i);
+                acc.set(bean, rs.wasNull() ? null : valeur);
+            };
+        } else if (type == Float.class) {
+            return (rs, i, bean, acc) -> {
+                float valeur = rs.getFloat(i);
+                acc.set(bean, rs.wasNull() ? null : valeur);
+            };
+        } else if (type == Short.class) {
+            return (rs, i, bean, acc) -> {
+                short valeur = rs.getShort(i);
+                acc.set(bean, rs.wasNull() ? null : valeur);
+            };
+        } else if (type == Byte.class) {
+            return (rs, i, bean, acc) -> {
+                byte valeur = rs.getByte(i);
+                acc.set(bean, rs.wasNull() ? null : valeur);
+            };
+        }
+        if (type == String.class) {
+            return (rs, i, bean, acc) -> acc.set(bean, rs.getString(i));
+        } else if (type == BigDecimal.class) {
+            return (rs, i, bean, acc) -> acc.set(bean, rs.getBigDecimal(i));
+        } else if (type == byte[].class) {
+            return (rs, i, bean, acc) -> acc.set(bean, rs.getBytes(i));
+        } else if (type == Timestamp.class || type == java.util.Date.class) {
+            return (rs, i, bean, acc) -> acc.set(bean, rs.getTimestamp(i));
+        } else if (type == java.sql.Date.class) {
+            return (rs, i, bean, acc) -> acc.set(bean, rs.getDate(i));
+        } else if (type == Time.class) {
+            if (typeSql == Types.OTHER) {
+                // interval PostgreSQL lu comme une heure
+                return (rs, i, bean, acc) -> {
+                    Object valeur = rs.getObject(i);
+                    acc.set(bean, valeur instanceof PGInterval ? heure((PGInterval) valeur) : valeur);
+                };
+            }
+            return (rs, i, bean, acc) -> acc.set(bean, rs.getTime(i));
+        } else if (type == LocalDate.class || type == LocalDateTime.class || type == LocalTime.class
+                || type == OffsetDateTime.class) {
+            return (rs, i, bean, acc) -> acc.set(bean, rs.getObject(i, type));
+        } else if (type == Instant.class) {
+            return (rs, i, bean, acc) -> {
+                Timestamp valeur = rs.getTimestamp(i);
+                acc.set(bean, valeur == null ? null : valeur.toInstant());
+            };
+        } else if (type == Duration.class) {
+            return (rs, i, bean, acc) -> {
+                Object valeur = rs.getObject(i);
+                acc.set(bean, valeur instanceof PGInterval ? duree((PGInterval) valeur) : valeur);
+            };
+        } else if (type.isEnum()) {
+            return enumeration(type.asSubclass(Enum.class));
+        }
+        return (rs, i, bean, acc) -> acc.set(bean, rs.getObject(i));
+    }
+
+    private static ColumnReader utilisateur(TypeConverter<?> convertisseur, boolean primitif) {
+        return (rs, i, bean, acc) -> {
+            Object valeur = rs.getObject(i);
+            if (valeur != null) {
+                acc.set(bean, convertisseur.convertir(valeur));
+            } else if (!primitif) {
+                acc.set(bean, null);
+            }
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ColumnReader enumeration(Class<? extends Enum> type) {
+        return (rs, i, bean, acc) -> {
+            String nom = rs.getString(i);
+            acc.set(bean, nom == null ? null : Enum.valueOf(type, nom));
+        };
+    }
+
+    /**
+     * Heure d'un interval, à la seconde et modulo 24 h : les jours, mois et
+     * années de l'interval sont ignorés.
+     */
+    private static Time heure(PGInterval intervalle) {
+        long secondes = (intervalle.getHours() * 60L + intervalle.getMinutes()) * 60L + intervalle.getWholeSeconds();
+        return Time.valueOf(LocalTime.ofSecondOfDay(Math.floorMod(secondes, 86_400L)));
+    }
+
+    private static Duration duree(PGInterval intervalle) {
+        if (intervalle.getYears() != 0 || intervalle.getMonths() != 0) {
+            throw new IllegalArgumentException("Interval en mois ou années sans durée fixe : " + intervalle.getValue());
+        }
+        return Duration.ofDays(intervalle.getDays())
+                .plusHours(intervalle.getHours())
+                .plusMinutes(intervalle.getMinutes())
+                .plusSeconds(intervalle.getWholeSeconds())
+                .plusNanos(intervalle.getMicroSeconds() * 1000L);
+    }
+
+    private static final class Cle {
+
+        final int typeSql;
+        final Class<?> type;
+
+        Cle(int typeSql, Class<?> type) {
+            this.typeSql = typeSql;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Cle)) {
+                return false;
+            }
+            Cle autre = (Cle) o;
+            return typeSql == autre.typeSql && type == autre.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * typeSql + type.hashCode();
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Encode des objets au format COPY de PostgreSQL (texte ou binaire) dans un
+ * tampon de taille fixe, vidé vers le {@link CopySink} dès qu'il dépasse
+ * {@link #SEUIL} octets : la mémoire utilisée ne dépend pas du nombre de lignes.
+ */
+final class CopyEncoder {
+
+    private static final int SEUIL = 64 * 1024;
+
+    // PGCOPY\n\377\r\n\0, puis flags (int32) et longueur d'extension (int32)
+    private static final byte[] ENTETE_BINAIRE = {
+        'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0,
+        0, 0, 0, 0,
+        0, 0, 0, 0
+    };
+
+    // 2000-01-01, origine des dates et timestamps binaires de PostgreSQL
+    private static final long EPOCH_PG_SECONDES = 946684800L;
+    private static final long EPOCH_PG_JOURS = 10957L;
+
+    private final CopySink sink;
+    private final CopyFormat format;
+    private final ColumnMetadata[] colonnes;
+    private final ColumnAccessor[] accesseurs;
+    private byte[] buf = new byte[SEUIL + 8192];
+    private int pos;
+
+    CopyEncoder(CopySink sink, CopyFormat format, List<ColumnMetadata> colonnes, MappingMode mode) {
+        this.sink = sink;
+        this.format = format;
+        this.colonnes = colonnes.toArray(new ColumnMetadata[0]);
+        this.accesseurs = new ColumnAccessor[this.colonnes.length];
+        for (int i = 0; i < this.colonnes.length; i++) {
+            accesseurs[i] = this.colonnes[i].getAccesseur(mode);
+            if (format == CopyFormat.BINARY && !supporteBinaire(this.colonnes[i].getType())) {
+                throw new IllegalArgumentException("Type " + this.colonnes[i].getType().getName()
+                        + " non supporté en COPY binaire (champ " + this.colonnes[i].getField().getName()
+                        + "), utilisez CopyFormat.TEXT");
+            }
+        }
+        if (format == CopyFormat.BINARY) {
+            ajouter(ENTETE_BINAIRE, 0, ENTETE_BINAIRE.length);
+        }
+    }
+
+    private static boolean supporteBinaire(Class<?> type) {
+        return type == int.class || type == Integer.class
+                || type == long.class || type == Long.class
+                || type == short.class || type == Short.class
+                || type == double.class || type == Double.class
+                || type == float.class || type == Float.class
+                || type == boolean.class || type == Boolean.class
+                || type == String.class || type == BigDecimal.class
+                || java.util.Date.class.isAssignableFrom(type) && type != Time.class;
+    }
+
+    /**
+     * Encode une ligne, et vide le tampon s'il a dépassé le seuil.
+     */
+    void ligne(Object obj) throws Exception {
+        if (format == CopyFormat.BINARY) {
+            ligneBinaire(obj);
+        } else {
+            ligneTexte(obj);
+        }
+        if (pos >= SEUIL) {
+            vider();
+        }
+    }
+
+    /**
+     * Termine le flux (fin de données en binaire) et le COPY.
+     *
+     * @return Le nombre de lignes copiées rapporté par la base
+     */
+    long fin() throws SQLException {
+        if (format == CopyFormat.BINARY) {
+            putShort(-1);
+        }
+        vider();
+        return sink.endCopy();
+    }
+
+    private void vider() throws SQLException {
+        if (pos > 0) {
+            sink.writeToCopy(buf, 0, pos);
+            pos = 0;
+        }
+    }
+
+    private void ligneTexte(Object obj) throws Exception {
+        for (int i = 0; i < colonnes.length; i++) {
+            if (i > 0) {
+                putByte('\t');
+            }
+            ColumnAccessor accesseur = accesseurs[i];
+            switch (colonnes[i].getGenre()) {
+                case ColumnMetadata.INT:
+                    putDecimal(accesseur.getInt(obj));
+                    break;
+                case ColumnMetadata.LONG:
+                    putDecimal(accesseur.getLong(obj));
+                    break;
+                case ColumnMetadata.DOUBLE:
+                    putAscii(Double.toString(accesseur.getDouble(obj)));
+                    break;
+                case ColumnMetadata.BOOLEAN:
+                    putByte(accesseur.getBoolean(obj) ? 't' : 'f');
+                    break;
+                default:
+                    Object value = accesseur.get(obj);
+                    if (value == null) {
+                        putByte('\\');
+                        putByte('N');
+                    } else {
+                        putUtf8(texte(value), true);
+                    }
+            }
+        }
+        putByte('\n');
+    }
+
+    private static String texte(Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? "t" : "f";
+        } else if (value instanceof java.util.Date && !(value instanceof java.sql.Date)
+                && !(value instanceof Timestamp) && !(value instanceof Time)) {
+            return new Timestamp(((java.util.Date) value).getTime()).toString();
+        }
+        return value.toString();
+    }
+
+    private void ligneBinaire(Object obj) throws Exception {
+        putShort(colonnes.length);
+        for (int i = 0; i < colonnes.length; i++) {
+            ColumnAccessor accesseur = accesseurs[i];
+            switch (colonnes[i].getGenre()) {
+                case ColumnMetadata.INT:
+                    putInt(4);
+                    putInt(accesseur.getInt(obj));
+                    break;
+                case ColumnMetadata.LONG:
+                    putInt(8);
+                    putLong(accesseur.getLong(obj));
+                    break;
+                case ColumnMetadata.DOUBLE:
+                    putInt(8);
+                    putLong(Double.doubleToLongBits(accesseur.getDouble(obj)));
+                    break;
+                case ColumnMetadata.BOOLEAN:
+                    putInt(1);
+                    putByte(accesseur.getBoolean(obj) ? 1 : 0);
+                    break;
+                default:
+                    valeurBinaire(accesseur.get(obj));
+            }
+        }
+    }
+
+    private void valeurBinaire(Object value) {
+        if (value == null) {
+            putInt(-1);
+        } else if (value instanceof String) {
+            // Longueur écrite après coup, une fois la chaîne encodée
+            int debut = pos;
+            putInt(0);
+            putUtf8((String) value, false);
+            int longueur = pos - debut - 4;
+            int fin = pos;
+            pos = debut;
+            putInt(longueur);
+            pos = fin;
+        } else if (value instanceof Integer) {
+            putInt(4);
+            putInt((Integer) value);
+        } else if (value instanceof Long) {
+            putInt(8);
+            putLong((Long) value);
+        } else if (value instanceof Short) {
+            putInt(2);
+            putShort((Short) value);
+        } else if (value instanceof Double) {
+            putInt(8);
+            putLong(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Float) {
+            putInt(4);
+            putInt(Float.floatToIntBits((Float) value));
+        } else if (value instanceof Boolean) {
+            putInt(1);
+            putByte((Boolean) value ? 1 : 0);
+        } else if (value instanceof BigDecimal) {
+            putNumeric((BigDecimal) value);
+        } else if (value instanceof java.sql.Date) {
+            putInt(4);
+            putInt((int) (((java.sql.Date) value).toLocalDate().toEpochDay() - EPOCH_PG_JOURS));
+        } else {
+            Timestamp ts = value instanceof Timestamp ? (Timestamp) value : new Timestamp(((java.util.Date) value).getTime());
+            // timestamp sans fuseau : microsecondes depuis 2000-01-01 en heure locale
+            long secondes = ts.toLocalDateTime().toEpochSecond(ZoneOffset.UTC) - EPOCH_PG_SECONDES;
+            putInt(8);
+            putLong(secondes * 1_000_000L + ts.getNanos() / 1000);
+        }
+    }
+
+    /**
+     * Encode un numeric PostgreSQL : chiffres en base 10000, poids du premier
+     * groupe, signe et nombre de décimales affichées.
+     */
+    private void putNumeric(BigDecimal value) {
+        int dscale = Math.max(value.scale(), 0);
+        String chiffres = value.abs().setScale(dscale).toPlainString();
+        int point = chiffres.indexOf('.');
+        String entier = point < 0 ? chiffres : chiffres.substring(0, point);
+        String decimales = point < 0 ? "" : chiffres.substring(point + 1);
+        StringBuilder aligne = new StringBuilder();
+        for (int i = (4 - entier.length() % 4) % 4; i > 0; i--) {
+            aligne.append('0');
+        }
+        aligne.append(entier);
+        int groupesEntiers = aligne.length() / 4;
+        aligne.append(decimales);
+        for (int i = (4 - decimales.length() % 4) % 4; i > 0; i--) {
+            aligne.append('0');
+        }
+        int[] groupes = new int[aligne.length() / 4];
+        for (int i = 0; i < groupes.length; i++) {
+            groupes[i] = Integer.parseInt(aligne.substring(i * 4, i * 4 + 4));
+        }
+        int premier = 0;
+        int poids = groupesEntiers - 1;
+        while (premier < groupes.length && groupes[premier] == 0) {
+            premier++;
+            poids--;
+        }
+        int dernier = groupes.length;
+        while (dernier > premier && groupes[dernier - 1] == 0) {
+            dernier--;
+        }
+        int ndigits = dernier - premier;
+        if (ndigits == 0) {
+            poids = 0;
+        }
+        putInt(8 + 2 * ndigits);
+        putShort(ndigits);
+        putShort(poids);
+        putShort(value.signum() < 0 ? 0x4000 : 0);
+        putShort(dscale);
+        for (int i = premier; i < dernier; i++) {
+            putShort(groupes[i]);
+        }
+    }
+
+    private void assurer(int n) {
+        if (pos + n > buf.length) {
+            byte[] plusGrand = new byte[Math.max(buf.length * 2, pos + n)];
+            System.arraycopy(buf, 0, plusGrand, 0, pos);
+            buf = plusGrand;
+        }
+    }
+
+    private void ajouter(byte[] octets, int off, int len) {
+        assurer(len);
+        System.arraycopy(octets, off, buf, pos, len);
+        pos += len;
+    }
+
+    private void putByte(int b) {
+        assurer(1);
+        buf[pos++] = (byte) b;
+    }
+
+    private void putShort(int v) {
+        assurer(2);
+        buf[pos++] = (byte) (v >>> 8);
+        buf[pos++] = (byte) v;
+    }
+
+    private void putInt(int v) {
+        assurer(4);
+        buf[pos++] = (byte) (v >>> 24);
+        buf[pos++] = (byte) (v >>> 16);
+        buf[pos++] = (byte) (v >>> 8);
+        buf[pos++] = (byte) v;
+    }
+
+    private void putLong(long v) {
+        putInt((int) (v >>> 32));
+        putInt((int) v);
+    }
+
+    /**
+     * Écrit un entier en décimal sans passer par une chaîne.
+     */
+    private void putDecimal(long v) {
+        if (v == Long.MIN_VALUE) {
+            putAscii(Long.toString(v));
+            return;
+        }
+        assurer(20);
+        if (v < 0) {
+            buf[pos++] = '-';
+            v = -v;
+        }
+        int debut = pos;
+        do {
+            buf[pos++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        for (int i = debut, j = pos - 1; i < j; i++, j--) {
+            byte b = buf[i];
+            buf[i] = buf[j];
+            buf[j] = b;
+        }
+    }
+
+    private void putAscii(String s) {
+        assurer(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buf[pos++] = (byte) s.charAt(i);
+        }
+    }
+
+    /**
+     * Écrit une chaîne en UTF-8, en échappant si besoin les caractères
+     * spéciaux du format texte (antislash, tabulation, fins de ligne).
+     */
+    private void putUtf8(String s, boolean echapper) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            assurer(4);
+            if (echapper && (c == '\\' || c == '\t' || c == '\n' || c == '\r')) {
+                buf[pos++] = '\\';
+                buf[pos++] = (byte) (c == '\\' ? '\\' : c == '\t' ? 't' : c == '\n' ? 'n' : 'r');
+            } else if (c < 0x80) {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+}
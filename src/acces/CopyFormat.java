@@ -0,0 +1,22 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+/**
+ * Format des données envoyées par {@code COPY ... FROM STDIN}.
+ */
+public enum CopyFormat {
+    /**
+     * Format texte de PostgreSQL : colonnes séparées par une tabulation,
+     * {@code \N} pour NULL. Tolérant sur les types (la base convertit).
+     */
+    TEXT,
+    /**
+     * Format binaire de PostgreSQL : plus compact et sans analyse côté serveur,
+     * mais le type Java de chaque champ doit correspondre exactement au type
+     * de la colonne (int/int4, long/int8, double/float8, String/text...).
+     */
+    BINARY
+}
@@ -0,0 +1,26 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package acces;
+
+import java.sql.SQLException;
+
+/**
+ * Destination des octets d'un {@code COPY ... FROM STDIN}. Mêmes méthodes que
+ * {@code org.postgresql.copy.CopyIn}, ce qui permet de brancher un faux
+ * destinataire en test.
+ */
+public interface CopySink {
+
+    void writeToCopy(byte[] buf, int off, int siz) throws SQLException;
+
+    /**
+     * Termine le COPY.
+     *
+     * @return Le nombre de lignes copiées
+     */
+    long endCopy() throws SQLException;
+
+    void cancelCopy() throws SQLException;
+}
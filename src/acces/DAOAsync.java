@@ -0,0 +1,262 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+/**
+ * Façade asynchrone de {@link DAO_CUD} : chaque appel s'exécute dans sa
+ * propre tâche, avec une connexion prise dans le {@link DataSource} puis
+ * rendue, et retourne un {@link CompletableFuture}.
+ *
+ * Les tâches tournent sur des threads virtuels quand la JVM en dispose
+ * (Java 21 et plus), sinon sur autant de threads que de connexions
+ * autorisées. Un sémaphore limite le nombre de tâches qui tiennent une
+ * connexion en même temps ; les autres attendent leur tour.
+ *
+ * Annuler le future ({@code cancel}) annule la requête en cours par
+ * {@link java.sql.Statement#cancel()} ; une tâche pas encore démarrée ne
+ * s'exécute pas.
+ *
+ * ```java
+ * try (DAOAsync async = new DAOAsync(new DAO_CUD(), dataSource, 20)) {
+ *     CompletableFuture<List<Client>> clients = async.findAllAsync(new Client());
+ *     CompletableFuture<List<Produit>> produits = async.findByCriteriaAsync(critere);
+ *     CompletableFuture.allOf(clients, produits).join();
+ * }
+ * ```
+ */
+public class DAOAsync implements AutoCloseable {
+
+    /**
+     * Travail exécuté par une tâche avec le DAO et la connexion de la tâche.
+     */
+    @FunctionalInterface
+    public interface Requete<R> {
+        R executer(DAO_CUD dao, Connection co) throws Exception;
+    }
+
+    private final DAO_CUD dao;
+    private final DataSource dataSource;
+    private final Semaphore connexions;
+    private final ExecutorService executor;
+    private final boolean executorInterne;
+
+    /**
+     * Façade sur la {@link DAORead#getDataSource() DataSource} du DAO, par
+     * exemple un {@link ConnectionPool} de {@code maxConnexions} connexions.
+     *
+     * @param dao Le DAO, avec sa DataSource
+     * @param maxConnexions Nombre maximum de tâches tenant une connexion en même temps
+     */
+    public DAOAsync(DAO_CUD dao, int maxConnexions) {
+        this(dao, dao.getDataSource(), maxConnexions, null);
+    }
+
+    /**
+     * @param dao Le DAO utilisé par toutes les tâches (configuration, caches, écouteur)
+     * @param dataSource La source des connexions
+     * @param maxConnexions Nombre maximum de tâches tenant une connexion en même temps
+     */
+    public DAOAsync(DAO_CUD dao, DataSource dataSource, int maxConnexions) {
+        this(dao, dataSource, maxConnexions, null);
+    }
+
+    /**
+     * @param executor L'exécuteur des tâches, ou null pour l'exécuteur par défaut
+     *        (threads virtuels si disponibles) ; un exécuteur fourni n'est pas
+     *        arrêté par {@link #close()}
+     */
+    public DAOAsync(DAO_CUD dao, DataSource dataSource, int maxConnexions, ExecutorService executor) {
+        if (maxConnexions < 1) {
+            throw new IllegalArgumentException("Nombre de connexions invalide : " + maxConnexions);
+        }
+        if (dataSource == null) {
+            throw new IllegalArgumentException("DataSource manquante");
+        }
+        this.dao = dao;
+        this.dataSource = dataSource;
+        this.connexions = new Semaphore(maxConnexions, true);
+        this.executorInterne = executor == null;
+        this.executor = executor != null ? executor : executorParDefaut(maxConnexions);
+    }
+
+    /**
+     * Threads virtuels (Java 21+), recherchés par réflexion pour rester
+     * compilable avec un JDK plus ancien ; à défaut, un pool de threads
+     * démons dimensionné sur le nombre de connexions.
+     */
+    static ExecutorService executorParDefaut(int maxConnexions) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            AtomicInteger numero = new AtomicInteger();
+            return Executors.newFixedThreadPool(maxConnexions, tache -> {
+                Thread thread = new Thread(tache, "dao-async-" + numero.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public DAO_CUD getDao() {
+        return dao;
+    }
+
+    /**
+     * @return Le nombre de connexions encore disponibles pour de nouvelles tâches
+     */
+    public int getConnexionsDisponibles() {
+        return connexions.availablePermits();
+    }
+
+    /**
+     * Exécute un travail quelconque sur le DAO dans une tâche.
+     *
+     * @param requete Le travail, qui reçoit la connexion de la tâche
+     * @return Le résultat du travail ; après {@link #close()}, un future en
+     *         échec ({@link RejectedExecutionException})
+     */
+    public <R> CompletableFuture<R> async(Requete<R> requete) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Annulation annulation = new Annulation();
+        future.whenComplete((resultat, erreur) -> {
+            if (erreur instanceof CancellationException) {
+                annulation.annuler();
+            }
+        });
+        try {
+            executor.execute(() -> executer(requete, future, annulation));
+        } catch (RejectedExecutionException e) {
+            // Façade fermée : l'erreur passe par le future, comme les autres
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private <R> void executer(Requete<R> requete, CompletableFuture<R> future, Annulation annulation) {
+        if (future.isDone()) {
+            return;
+        }
+        try {
+            connexions.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return;
+        }
+        try {
+            if (future.isDone()) {
+                return;
+            }
+            annulation.installer();
+            try (Connection co = dataSource.getConnection()) {
+                future.complete(requete.executer(dao, co));
+            }
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        } finally {
+            Annulation.retirer();
+            connexions.release();
+        }
+    }
+
+    public <T> CompletableFuture<List<T>> findAsync(T o, String query) {
+        return async((d, co) -> d.find(co, o, query));
+    }
+
+    public <T> CompletableFuture<List<T>> findAllAsync(T o) {
+        return async((d, co) -> d.findAll(co, o));
+    }
+
+    public <T> CompletableFuture<T> findByIdAsync(Class<T> classe, Object pk) {
+        return async((d, co) -> d.findById(co, classe, pk));
+    }
+
+    public <T> CompletableFuture<Map<Object, T>> findByIdsAsync(Class<T> classe, Collection<?> ids) {
+        return async((d, co) -> d.findByIds(co, classe, ids));
+    }
+
+    public <T> CompletableFuture<List<T>> findByCriteriaAsync(T o) {
+        return async((d, co) -> d.findByCriteria(co, o));
+    }
+
+    public <T> CompletableFuture<List<T>> findMulticriteriaAsync(T o, T obj2) {
+        return async((d, co) -> d.findMulticriteria(co, o, obj2));
+    }
+
+    public <T> CompletableFuture<List<T>> findByIntervalAsync(T obj1, T obj2) {
+        return async((d, co) -> d.findByInterval(co, obj1, obj2));
+    }
+
+    public <T> CompletableFuture<Page<T>> findPageAsync(T o, int pageSize, String continuationToken) {
+        return async((d, co) -> d.findPage(co, o, pageSize, continuationToken));
+    }
+
+    public <T> CompletableFuture<Void> insertAsync(T obj) {
+        return async((d, co) -> {
+            d.insert(co, obj);
+            return null;
+        });
+    }
+
+    public <T> CompletableFuture<Void> upsertAsync(T obj) {
+        return async((d, co) -> {
+            d.upsert(co, obj);
+            return null;
+        });
+    }
+
+    public <T> CompletableFuture<Void> updateAsync(T obj) {
+        return async((d, co) -> {
+            d.update(co, obj);
+            return null;
+        });
+    }
+
+    public <T> CompletableFuture<Void> deleteAsync(T obj) {
+        return async((d, co) -> {
+            d.delete(co, obj);
+            return null;
+        });
+    }
+
+    public <T> CompletableFuture<BatchResult> insertAllAsync(List<T> objs) {
+        return async((d, co) -> d.insertAll(co, objs));
+    }
+
+    public <T> CompletableFuture<BatchResult> upsertAllAsync(List<T> objs) {
+        return async((d, co) -> d.upsertAll(co, objs));
+    }
+
+    public <T> CompletableFuture<BatchResult> updateAllAsync(List<T> objs) {
+        return async((d, co) -> d.updateAll(co, objs));
+    }
+
+    public <T> CompletableFuture<BatchResult> deleteAllAsync(List<T> objs) {
+        return async((d, co) -> d.deleteAll(co, objs));
+    }
+
+    /**
+     * Arrête l'exécuteur par défaut après les tâches en cours.
+     */
+    @Override
+    public void close() {
+        if (executorInterne) {
+            executor.shutdown();
+        }
+    }
+}
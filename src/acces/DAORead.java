@@ -5,24 +5,193 @@
 package acces;
 
 import annotation.Colonne;
-import annotation.Table;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.sql.Types;
+import java.sql.Array;
+import java.sql.SQLFeatureNotSupportedException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.math.BigDecimal;
-import java.lang.Long;
-import org.postgresql.util.PGInterval;
-import java.sql.Time;
-import java.sql.Timestamp;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
 
 public class DAORead {
+
+    private MappingMode mappingMode = MappingMode.GENERATED;
+    private int fetchSize = 1000;
+    private int idChunkSize = 500;
+    private DaoListener listener = DaoListener.NOOP;
+    private EntityCache entityCache;
+    private QueryCache queryCache;
+    private Snapshots<Object[]> snapshots;
+    private DataSource dataSource;
+
+    /**
+     * @return Le moteur utilisé pour lire et écrire les champs des objets
+     */
+    public MappingMode getMappingMode() {
+        return mappingMode;
+    }
+
+    /**
+     * Choisit le moteur de mapping utilisé par toutes les méthodes find*
+     * et par les méthodes d'écriture de {@link DAO_CUD}.
+     *
+     * @param mappingMode {@link MappingMode#GENERATED} (par défaut) ou
+     *        {@link MappingMode#REFLECTION}
+     */
+    public void setMappingMode(MappingMode mappingMode) {
+        this.mappingMode = mappingMode;
+    }
+
+    public DaoListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Installe un écouteur prévenu avant et après chaque requête (SQL,
+     * paramètres, durées, lignes), par exemple un {@link DaoMetrics}.
+     *
+     * @param listener L'écouteur, ou null pour revenir à {@link DaoListener#NOOP}
+     */
+    public void setListener(DaoListener listener) {
+        this.listener = listener != null ? listener : DaoListener.NOOP;
+    }
+
+    /**
+     * @return Le cache de {@link #findById}, ou null s'il est désactivé
+     */
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * Active le cache des entités lues par {@link #findById}. Un même cache
+     * peut être partagé par plusieurs DAO ; les écritures de {@link DAO_CUD}
+     * passant par un DAO qui le connaît l'invalident.
+     *
+     * @param entityCache Le cache, ou null pour le désactiver (par défaut)
+     */
+    public void setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    /**
+     * @return Le cache des résultats de findByCriteria et findMulticriteria,
+     *         ou null s'il est désactivé
+     */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Active le cache des résultats de findByCriteria et findMulticriteria
+     * pour les classes annotées {@code @Cacheable}.
+     *
+     * @param queryCache Le cache, ou null pour le désactiver (par défaut)
+     */
+    public void setQueryCache(QueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    public boolean isDirtyChecking() {
+        return snapshots != null;
+    }
+
+    /**
+     * Active le dirty checking : l'état de chaque objet rendu par les
+     * méthodes find* (hors stream et iterate) est relevé, et
+     * {@link DAO_CUD#update} ne met à jour que les colonnes modifiées
+     * depuis — ou n'envoie rien si aucune ne l'est. L'objet doit être lu et
+     * mis à jour par le même DAO.
+     *
+     * @param dirtyChecking Vrai pour activer (désactivé par défaut)
+     */
+    public void setDirtyChecking(boolean dirtyChecking) {
+        if (!dirtyChecking) {
+            snapshots = null;
+        } else if (snapshots == null) {
+            snapshots = new Snapshots<>();
+        }
+    }
+
+    /**
+     * Arrête le suivi d'un objet : son prochain update écrira toutes les colonnes.
+     */
+    public void detach(Object o) {
+        Snapshots<Object[]> suivi = snapshots;
+        if (suivi != null) {
+            suivi.oublier(o);
+        }
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * @param fetchSize Nombre de lignes ramenées par aller-retour par les
+     *        méthodes stream* et iterate* (1000 par défaut)
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getIdChunkSize() {
+        return idChunkSize;
+    }
+
+    /**
+     * @param idChunkSize Nombre maximum de clés par requête de
+     *        {@link #findByIds} (500 par défaut)
+     */
+    public void setIdChunkSize(int idChunkSize) {
+        if (idChunkSize < 1) {
+            throw new IllegalArgumentException("Taille de paquet invalide : " + idChunkSize);
+        }
+        this.idChunkSize = idChunkSize;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Donne au DAO la source des connexions utilisée par les méthodes sans
+     * paramètre {@link Connection} : chacune emprunte une connexion le temps
+     * de la requête et la rend. Avec un {@link ConnectionPool}, l'ouverture
+     * d'une connexion n'est plus payée à chaque appel.
+     *
+     * @param dataSource La source, ou null pour n'accepter que des connexions fournies
+     */
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return Une connexion de la {@link DataSource}, à fermer par l'appelant
+     */
+    Connection connexion() throws Exception {
+        DataSource source = dataSource;
+        if (source == null) {
+            throw new IllegalStateException("Aucune DataSource : appelez setDataSource ou passez une Connection");
+        }
+        return source.getConnection();
+    }
     
     /**
     * On entre une connexion et une requete et on obtient les données
@@ -60,34 +229,133 @@ public class DAORead {
     * @return Liste d'objets représentant la requete envoyé
     */
     public <T> List<T> find(Connection co, T o, String query) throws Exception {
-        Class<?> clazz = o.getClass();
-        List<T> results;
-        try (Statement stmt = co.createStatement(); 
-            ResultSet rs = stmt.executeQuery(query)) {
-            results = new ArrayList<>();
-            while (rs.next()) {
-                T instance = (T) clazz.newInstance();
-                for (Field field : clazz.getDeclaredFields()) {
-                    if (!Modifier.isStatic(field.getModifiers())) {
-                        String columnName = field.getName();
-                        Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                        if (colonneAnnotation != null) {
-                            columnName = colonneAnnotation.nom();
-                        }
-                        String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                        Method setterMethod = clazz.getMethod(setterName, field.getType());
-                        Object value = rs.getObject(columnName);
-                        // Conversion de type
-                        if (value instanceof String) {
-                            value = value.toString().replace("'", "''");
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        return lire(co, meta, "find", query, null);
+    }
+
+    /**
+    * Lit l'objet d'une clé primaire. Si un {@link EntityCache} est installé,
+    * l'objet est d'abord cherché dans le cache, et la ligne lue y est mise
+    * (en autocommit seulement, pour ne pas partager une ligne non validée).
+    *
+     * @param co La connexion au SGBD
+     * @param classe La classe mappée, avec un champ {@code @PrimaryKey}
+     * @param pk La valeur de la clé primaire
+     * @example
+     * ```java
+    dao.setEntityCache(new EntityCache(10_000, 5, TimeUnit.MINUTES));
+    Produit produit = dao.findById(connection, Produit.class, 42);
+     * ```
+    * @return L'objet, ou null si aucune ligne n'a cette clé
+    */
+    public <T> T findById(Connection co, Class<T> classe, Object pk) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(classe);
+        if (meta.getPrimaryKey() == null) {
+            throw new IllegalArgumentException("Primary key field not found for class: " + classe.getName());
+        }
+        if (pk == null) {
+            throw new IllegalArgumentException("Primary key value is null for class: " + classe.getName());
+        }
+        EntityCache cache = entityCache;
+        long generation = 0;
+        if (cache != null) {
+            T enCache = cache.get(meta, pk, mappingMode);
+            if (enCache != null) {
+                suivreObjet(meta, enCache);
+                return enCache;
+            }
+            generation = cache.generation(meta, pk);
+        }
+        List<Object> valuesList = new ArrayList<>();
+        valuesList.add(pk);
+        List<T> results = lire(co, meta, "findById", meta.getSqlSelectById(), valuesList);
+        if (results.isEmpty()) {
+            return null;
+        }
+        T instance = results.get(0);
+        if (cache != null && co.getAutoCommit()) {
+            cache.put(meta, pk, instance, generation, mappingMode);
+        }
+        return instance;
+    }
+
+    /**
+    * Lit les objets de plusieurs clés primaires en quelques requêtes au lieu
+    * d'une par clé : {@code WHERE pk = ANY(?)} avec un tableau lié, ou
+    * {@code IN (?, ?...)} pour un type de clé sans tableau SQL, par paquets
+    * de {@link #getIdChunkSize()} clés. Si un {@link EntityCache} est
+    * installé, seules les clés absentes du cache sont lues en base.
+    *
+     * @param co La connexion au SGBD
+     * @param classe La classe mappée, avec un champ {@code @PrimaryKey}
+     * @param ids Les valeurs des clés primaires (les doublons sont lus une fois)
+     * @example
+     * ```java
+    Map<Object, Produit> produits = dao.findByIds(connection, Produit.class, idsDesLignesDeCommande);
+    for (LigneCommande ligne : lignes) {
+        Produit produit = produits.get(ligne.getIdProduit());
+    }
+     * ```
+    * @return Les objets trouvés, indexés par la clé telle que passée dans
+    *         {@code ids} et dans l'ordre de {@code ids} ; une clé sans ligne est absente
+    */
+    public <T> Map<Object, T> findByIds(Connection co, Class<T> classe, Collection<?> ids) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(classe);
+        ColumnMetadata pk = meta.getPrimaryKey();
+        if (pk == null) {
+            throw new IllegalArgumentException("Primary key field not found for class: " + classe.getName());
+        }
+        // Clés normalisées (1 et 1L sont la même ligne), dans l'ordre d'entrée
+        Map<Object, Object> demandees = new LinkedHashMap<>();
+        for (Object id : ids) {
+            if (id == null) {
+                throw new IllegalArgumentException("Primary key value is null for class: " + classe.getName());
+            }
+            demandees.putIfAbsent(EntityCache.normaliser(id), id);
+        }
+        Map<Object, T> trouvees = new HashMap<>();
+        List<Object> manquantes = new ArrayList<>();
+        EntityCache cache = entityCache;
+        Map<Object, Long> generations = cache != null ? new HashMap<>() : null;
+        for (Map.Entry<Object, Object> demandee : demandees.entrySet()) {
+            if (cache != null) {
+                T enCache = cache.get(meta, demandee.getValue(), mappingMode);
+                if (enCache != null) {
+                    suivreObjet(meta, enCache);
+                    trouvees.put(demandee.getKey(), enCache);
+                    continue;
+                }
+                generations.put(demandee.getKey(), cache.generation(meta, demandee.getValue()));
+            }
+            manquantes.add(demandee.getValue());
+        }
+        if (!manquantes.isEmpty()) {
+            boolean enCache = cache != null && co.getAutoCommit();
+            ColumnAccessor accesseur = pk.getAccesseur(mappingMode);
+            String typeTableau = typeTableau(pk.getType());
+            for (int debut = 0; debut < manquantes.size(); debut += idChunkSize) {
+                List<Object> paquet = manquantes.subList(debut, Math.min(manquantes.size(), debut + idChunkSize));
+                List<T> lues = lireParIds(co, meta, pk, typeTableau, paquet);
+                for (T objet : lues) {
+                    Object cle = EntityCache.normaliser(accesseur.get(objet));
+                    trouvees.put(cle, objet);
+                    if (enCache) {
+                        Long generation = generations.get(cle);
+                        if (generation != null) {
+                            cache.put(meta, demandees.get(cle), objet, generation, mappingMode);
                         }
-                        setterMethod.invoke(instance, value);
                     }
                 }
-                results.add(instance);
-            }          
+            }
         }
-        return results;
+        Map<Object, T> resultat = new LinkedHashMap<>();
+        for (Map.Entry<Object, Object> demandee : demandees.entrySet()) {
+            T objet = trouvees.get(demandee.getKey());
+            if (objet != null) {
+                resultat.put(demandee.getValue(), objet);
+            }
+        }
+        return resultat;
     }
 
     /**
@@ -121,63 +389,15 @@ public class DAORead {
         System.out.println(c.getId() + " - " + c.getNom() + " - " + c.getEmail());
     }
      * ```
-    * @return Liste d'objets d'un "SELECT *" d'une SGBD
+    * @return Liste d'objets d'un "SELECT" d'une SGBD
     */
     public <T> List<T> findAll(Connection co, T o) throws Exception {
-        Class<?> clazz = o.getClass();
-        Table tableAnnotation = clazz.getAnnotation(Table.class);
-        String tableName = tableAnnotation != null ? tableAnnotation.nom() : clazz.getSimpleName().toLowerCase();
-        String query = "SELECT * FROM " + tableName + ";";
-        List<T> results;
-        try (Statement stmt = co.createStatement(); 
-            ResultSet rs = stmt.executeQuery(query)) {
-            results = new ArrayList<>();
-            while (rs.next()) {
-                T instance = (T) clazz.newInstance();
-                for (Field field : clazz.getDeclaredFields()) {
-                    if (!Modifier.isStatic(field.getModifiers())) {
-                        String columnName = field.getName();
-                        Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                        if (colonneAnnotation != null) {
-                            columnName = colonneAnnotation.nom();
-                        }
-                        String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                        Method setterMethod = clazz.getMethod(setterName, field.getType());
-                        Object value = rs.getObject(columnName);
-                        // Conversion de type
-                        if (value instanceof String) {
-                            value = value.toString().replace("'", "''");
-                        }
-
-                        // Conversion de type spécifique pour BigDecimal vers double
-                        if (value instanceof BigDecimal && setterMethod.getParameterTypes()[0] == double.class) {
-                            value = ((BigDecimal) value).doubleValue();
-                        }
-
-                        if (value instanceof Long && setterMethod.getParameterTypes()[0] == int.class) {
-                            value = ((Long) value).intValue();
-                        }
-
-                        if (value instanceof PGInterval && setterMethod.getParameterTypes()[0] == Time.class) {
-                            PGInterval interval = (PGInterval) value;
-
-                            int hour = interval.getHours();
-                            int minutes = interval.getMinutes();
-                            int seconds = interval.getWholeSeconds();
-                            int secFromMilli = interval.getMicroSeconds() / 1000000;
-
-                            // Création de l'objet Time
-                            Time time = new Time(hour,minutes,seconds+secFromMilli);
-                            value = time;
-                        }
-                        System.out.println(field.getName()+":"+value.getClass().getName());
-                        setterMethod.invoke(instance, value);
-                    }
-                }
-                results.add(instance);
-            }          
+        if (o instanceof Class) {
+            throw new IllegalArgumentException("findAll attend un objet mappé ; pour une classe, utiliser findAll(co, classe)");
         }
-        return results;
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        String query = meta.getSqlSelect() + ";";
+        return lire(co, meta, "findAll", query, null);
     }
 
     /**
@@ -215,42 +435,151 @@ public class DAORead {
         System.out.println(p.getId() + " - " + p.getNom() + " - " + p.getPrix());
     }
      * ```
-    * @return Liste d'objets d'un "SELECT *" d'une SGBD
+    * @return Liste d'objets d'un "SELECT" d'une SGBD
+    * @see #findPage(Connection, Object, int, String) pagination par clé, sans OFFSET, pour les pages lointaines
     */
     public <T> List<T> findAll(Connection co, T o, int pageNumber, int pageSize) throws Exception {
-        Class<?> clazz = o.getClass();
-        Table tableAnnotation = clazz.getAnnotation(Table.class);
-        String tableName = tableAnnotation != null ? tableAnnotation.nom() : clazz.getSimpleName().toLowerCase();
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
         // Calculate offset based on page number and page size
         int offset = (pageNumber - 1) * pageSize;
         // Construct paginated SQL query
-        String query = "SELECT * FROM " + tableName + " LIMIT " + pageSize + " OFFSET " + offset + ";";
-        List<T> results;
-        try (Statement stmt = co.createStatement(); 
-             ResultSet rs = stmt.executeQuery(query)) {
-            results = new ArrayList<>();
-            while (rs.next()) {
-                T instance = (T) clazz.newInstance();
-                for (Field field : clazz.getDeclaredFields()) {
-                    if (!Modifier.isStatic(field.getModifiers())) {
-                        String columnName = field.getName();
-                        Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                        if (colonneAnnotation != null) {
-                            columnName = colonneAnnotation.nom();
-                        }
-                        String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                        Method setterMethod = clazz.getMethod(setterName, field.getType());
-                        Object value = rs.getObject(columnName);
-                        if (value instanceof String) {
-                            value = value.toString().replace("'", "''");
-                        }
-                        setterMethod.invoke(instance, value);
+        String query = meta.getSqlSelect() + " LIMIT " + pageSize + " OFFSET " + offset + ";";
+        return lire(co, meta, "findAll", query, null);
+    }
+
+    /**
+    * Projection : ne lit que les colonnes demandées, les autres champs de
+    * chaque objet restent à leur valeur par défaut. Une colonne {@code @Lazy}
+    * peut être demandée explicitement.
+    *
+     * @param co La connexion au SGBD
+     * @param classe La classe mappée
+     * @param colonnes Les noms de colonnes (ou de champs) à lire ; aucune pour
+     *        toutes les colonnes mappées hors {@code @Lazy}
+     * @example
+     * ```java
+    List<Produit> produits = dao.findAll(connection, Produit.class, "id", "nom");
+     * ```
+    * @return Liste d'objets partiellement remplis
+    */
+    public <T> List<T> findAll(Connection co, Class<T> classe, String... colonnes) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(classe);
+        if (colonnes.length == 0) {
+            return lire(co, meta, "findAll", meta.getSqlSelect() + ";", null);
+        }
+        StringBuilder query = new StringBuilder("SELECT ");
+        for (int i = 0; i < colonnes.length; i++) {
+            ColumnMetadata colonne = meta.getColonne(colonnes[i]);
+            if (colonne == null) {
+                throw new IllegalArgumentException("Colonne inconnue pour " + classe.getName() + " : " + colonnes[i]);
+            }
+            query.append(i == 0 ? "" : ", ").append(colonne.getNom());
+        }
+        query.append(" FROM ").append(meta.getNomTable()).append(';');
+        return lire(co, meta, "findAll", query.toString(), null, true);
+    }
+
+    /**
+    * {@link #findAll(Connection, Class, String...)} sans liste de colonnes :
+    * toutes les colonnes mappées hors {@code @Lazy}. Sans cette surcharge,
+    * {@code findAll(co, Produit.class)} irait à {@link #findAll(Connection, Object)}.
+    *
+     * @param co La connexion au SGBD
+     * @param classe La classe mappée
+    * @return Liste d'objets d'un "SELECT" d'une SGBD
+    */
+    public <T> List<T> findAll(Connection co, Class<T> classe) throws Exception {
+        return findAll(co, classe, new String[0]);
+    }
+
+    /**
+    * Charge les colonnes {@code @Lazy} d'un objet déjà lu, par sa clé
+    * primaire : elles sont exclues des SELECT générés et ne sont lues qu'à
+    * la demande.
+    *
+     * @param co La connexion au SGBD
+     * @param o L'objet à compléter, avec sa clé primaire renseignée
+     * @param champs Les colonnes (ou champs) {@code @Lazy} à charger ; aucun
+     *        pour toutes
+     * @example
+     * ```java
+    Document document = dao.findById(connection, Document.class, 7);
+    dao.loadLazy(connection, document, "contenu");
+     * ```
+    * @return false si aucune ligne n'a la clé de l'objet
+    */
+    public <T> boolean loadLazy(Connection co, T o, String... champs) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        ColumnMetadata pk = meta.getPrimaryKey();
+        if (pk == null) {
+            throw new IllegalArgumentException("Primary key field not found for class: " + meta.getClasse().getName());
+        }
+        Object pkValue = pk.getAccesseur(mappingMode).get(o);
+        if (pkValue == null) {
+            throw new IllegalArgumentException("Primary key value is null for class: " + meta.getClasse().getName());
+        }
+        List<ColumnMetadata> aCharger;
+        if (champs.length == 0) {
+            aCharger = meta.getColonnesLazy();
+        } else {
+            aCharger = new ArrayList<>(champs.length);
+            for (String champ : champs) {
+                ColumnMetadata colonne = meta.getColonne(champ);
+                if (colonne == null || !colonne.isLazy()) {
+                    throw new IllegalArgumentException("Pas de colonne @Lazy " + champ + " pour " + meta.getClasse().getName());
+                }
+                aCharger.add(colonne);
+            }
+        }
+        if (aCharger.isEmpty()) {
+            return true;
+        }
+        StringBuilder query = new StringBuilder("SELECT ");
+        for (int i = 0; i < aCharger.size(); i++) {
+            query.append(i == 0 ? "" : ", ").append(aCharger.get(i).getNom());
+        }
+        query.append(" FROM ").append(meta.getNomTable()).append(" WHERE ").append(pk.getNom()).append(" = ?");
+        String sql = query.toString();
+        QueryEvent evenement = avant("loadLazy", meta, sql, 1);
+        boolean trouve;
+        try (PreparedStatement ps = co.prepareStatement(sql)) {
+            Annulation.surveiller(ps);
+            ps.setObject(1, pkValue);
+            try (ResultSet rs = ps.executeQuery()) {
+                executee(evenement);
+                trouve = rs.next();
+                if (trouve) {
+                    for (int i = 0; i < aCharger.size(); i++) {
+                        ColumnMetadata colonne = aCharger.get(i);
+                        colonne.affecter(rs, i + 1, o, colonne.getAccesseur(mappingMode));
                     }
                 }
-                results.add(instance);
-            }          
+            }
+            if (evenement != null) {
+                evenement.hydrate();
+            }
+        } catch (Exception e) {
+            echec(evenement, e);
+            throw e;
+        } finally {
+            Annulation.liberer();
         }
-        return results;
+        apres(evenement, trouve ? 1 : 0);
+        if (trouve) {
+            meta.chargees(o, aCharger);
+        }
+        Object[] etat = etatSuivi(o);
+        if (trouve && etat != null) {
+            // Les valeurs chargées font partie de l'état lu, sans effacer les modifications en cours
+            List<ColumnMetadata> suivies = meta.getColonnesUpdate();
+            for (ColumnMetadata colonne : aCharger) {
+                int index = suivies.indexOf(colonne);
+                if (index >= 0) {
+                    etat[index] = colonne.getAccesseur(mappingMode).get(o);
+                }
+            }
+        }
+        return trouve;
     }
 
     /**
@@ -285,71 +614,14 @@ public class DAORead {
         System.out.println(c.getId() + " - " + c.getNom() + " - " + c.getEmail());
     }
      * ```
-    * @return Liste d'objets d'un "SELECT *" d'une SGBD avec un WHERE
+    * @return Liste d'objets d'un "SELECT" d'une SGBD avec un WHERE
     */
     public <T> List<T> findByCriteria(Connection co, T o) throws Exception {
-        Class<?> clazz = o.getClass();
-        Table tableAnnotation = clazz.getAnnotation(Table.class);
-        String tableName = tableAnnotation != null ? tableAnnotation.nom() : clazz.getSimpleName().toLowerCase();
-        // Build WHERE clause dynamically based on non-null fields
-        StringBuilder whereClause = new StringBuilder();
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        // Requête construite une fois par ensemble de champs non nuls
         List<Object> valuesList = new ArrayList<>();
-        int counter = 0;
-        for (Field field : clazz.getDeclaredFields()) {
-            if (!Modifier.isStatic(field.getModifiers())) {
-                String getterName = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                Method getterMethod = clazz.getMethod(getterName);
-                Object value = getterMethod.invoke(o);
-                if (value != null) {
-                    if (counter > 0) {
-                        whereClause.append(" OR ");
-                    } else {
-                        whereClause.append(" WHERE ");
-                    }
-                    String columnName = field.getName();
-                    Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                    if (colonneAnnotation != null) {
-                        columnName = colonneAnnotation.nom();
-                    }
-                    whereClause.append(columnName + " = ?");
-                    valuesList.add(value);
-                    counter++;
-                }
-            }
-        }
-        String query = "SELECT * FROM " + tableName + " " + whereClause.toString() + ";";
-        List<T> results;
-        // Set values for prepared statement
-        try (PreparedStatement stmt = co.prepareStatement(query)) {
-            // Set values for prepared statement
-            for (int i = 0; i < valuesList.size(); i++) {
-                stmt.setObject(i + 1, valuesList.get(i));
-            }  try (ResultSet rs = stmt.executeQuery()) {
-                results = new ArrayList<>();
-                while (rs.next()) {
-                    T instance = (T) clazz.newInstance();
-                    for (Field field : clazz.getDeclaredFields()) {
-                        if (!Modifier.isStatic(field.getModifiers())) {
-                            String columnName = field.getName();
-                            Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                            if (colonneAnnotation != null) {
-                                columnName = colonneAnnotation.nom();
-                            }
-                            String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                            Method setterMethod = clazz.getMethod(setterName, field.getType());
-                            Object value = rs.getObject(columnName);
-                            // Conversion de type (same logic as findAll)
-                            if (value instanceof String) {
-                                value = value.toString().replace("'", "''");
-                            }
-                            setterMethod.invoke(instance, value);
-                        }
-                    }
-                    results.add(instance);
-                }
-            }
-        }
-        return results;
+        String query = meta.getSqlCriteres(criteres(meta, o, valuesList), false);
+        return lireEnCache(co, meta, "findByCriteria", query, valuesList);
     }
 
     /**
@@ -388,74 +660,20 @@ public class DAORead {
         System.out.println(p.getId() + " - " + p.getNom() + " - " + p.getPrix());
     }
      * ```
-    * @return Liste d'objets d'un "SELECT *" d'une SGBD avec un WHERE
+    * @return Liste d'objets d'un "SELECT" d'une SGBD avec un WHERE
+    * @see #findPageByCriteria(Connection, Object, int, String) pagination par clé, sans OFFSET, pour les pages lointaines
     */
     public <T> List<T> findByCriteria(Connection co, T o, int pageNumber, int pageSize) throws Exception {
-        Class<?> clazz = o.getClass();
-        Table tableAnnotation = clazz.getAnnotation(Table.class);
-        String tableName = tableAnnotation != null ? tableAnnotation.nom() : clazz.getSimpleName().toLowerCase();
-        // Build WHERE clause dynamically based on non-null fields
-        StringBuilder whereClause = new StringBuilder();
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        // Requête construite une fois par ensemble de champs non nuls
         List<Object> valuesList = new ArrayList<>();
-        int counter = 0;
-        for (Field field : clazz.getDeclaredFields()) {
-            if (!Modifier.isStatic(field.getModifiers())) {
-                String getterName = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                Method getterMethod = clazz.getMethod(getterName);
-                Object value = getterMethod.invoke(o);
-                if (value != null) {
-                    if (counter > 0) {
-                        whereClause.append(" OR ");
-                    } else {
-                        whereClause.append(" WHERE ");
-                    }
-                    String columnName = field.getName();
-                    Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                    if (colonneAnnotation != null) {
-                        columnName = colonneAnnotation.nom();
-                    }
-                    whereClause.append(columnName + " = ?");
-                    valuesList.add(value);
-                    counter++;
-                }
-            }
-        }
+        String query = meta.getSqlCriteres(criteres(meta, o, valuesList), true);
         // Calculate offset based on page number and page size
         int offset = (pageNumber - 1) * pageSize;
-        // Construct paginated SQL query
-        String query = "SELECT * FROM " + tableName + " " + whereClause.toString() + " LIMIT " + pageSize + " OFFSET " + offset + ";";
-        List<T> results;
-        // Set values for prepared statement
-        try (PreparedStatement stmt = co.prepareStatement(query)) {
-            // Set values for prepared statement
-            for (int i = 0; i < valuesList.size(); i++) {
-                stmt.setObject(i + 1, valuesList.get(i));
-            }  try (ResultSet rs = stmt.executeQuery()) {
-                results = new ArrayList<>();
-                while (rs.next()) {
-                    T instance = (T) clazz.newInstance();
-                    for (Field field : clazz.getDeclaredFields()) {
-                        if (!Modifier.isStatic(field.getModifiers())) {
-                            String columnName = field.getName();
-                            Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                            if (colonneAnnotation != null) {
-                                columnName = colonneAnnotation.nom();
-                            }
-                            String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                            Method setterMethod = clazz.getMethod(setterName, field.getType());
-                            Object value = rs.getObject(columnName);
-                            // Conversion de type (same logic as findAll)
-                            if (value instanceof String) {
-                                value = value.toString().replace("'", "''");
-                            }
-                            setterMethod.invoke(instance, value);
-                        }
-                    }
-                    results.add(instance);
-                }
-            }
-        }
-        return results;
+        // Page et décalage liés en paramètres : le même SQL pour toutes les pages
+        valuesList.add(pageSize);
+        valuesList.add(offset);
+        return lireEnCache(co, meta, "findByCriteria", query, valuesList);
     }
 
     /**
@@ -495,90 +713,17 @@ public class DAORead {
         System.out.println(c.getId() + " - " + c.getDateCommande() + " - " + c.getMontant());
     }
     * ```
-    * @return Liste d'objets d'un "SELECT *" d'une SGBD avec un "BETWEEN"
+    * @return Liste d'objets d'un "SELECT" d'une SGBD avec un "BETWEEN"
     */
     public <T> List<T> findByInterval(Connection co, T obj1, T obj2) throws Exception {
-        Class<?> clazz = obj1.getClass();
-        Table tableAnnotation = clazz.getAnnotation(Table.class);
-        String tableName = tableAnnotation != null ? tableAnnotation.nom() : clazz.getSimpleName().toLowerCase();
-        // Get non-null field with `Colonne` annotation
-        String fieldName = null;
-        Object lowerBound = null;
-        Object upperBound = null;
-        for (Field field : clazz.getDeclaredFields()) {
-            if (!Modifier.isStatic(field.getModifiers())) {
-                Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                if (colonneAnnotation != null) {
-                    String getterName = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                    Method getterMethod = clazz.getMethod(getterName);
-                    Object value1 = getterMethod.invoke(obj1);
-                    Object value2 = getterMethod.invoke(obj2);
-                    if (value1 != null) {
-                        fieldName = colonneAnnotation.nom();
-                        lowerBound = value1;
-                    }
-                    if (value2 != null) {
-                        upperBound = value2;
-                    }
-                    if(value1.equals(value2)){
-                        continue;
-                    }
-                    break;
-                }
-            }
-        }
+        EntityMetadata meta = EntityMetadata.of(obj1.getClass());
+        Intervalle intervalle = intervalle(meta, obj1, obj2);
         // Build query only if at least one bound and field name are non-null
-        String query = null;
-        if (lowerBound != null || upperBound != null) {
-            query = "SELECT * FROM " + tableName + " WHERE " + fieldName + " BETWEEN ? AND ?;";
-        }
-        if (query != null) {
-            PreparedStatement stmt = co.prepareStatement(query);
-            if (lowerBound != null) {
-                stmt.setObject(1, lowerBound);
-            } else {
-                stmt.setNull(1, Types.NULL);
-            }
-            
-            if (upperBound != null) {
-                stmt.setObject(2, upperBound);
-            } else {
-                stmt.setNull(2, Types.NULL);
-            }
-            ResultSet rs = stmt.executeQuery();
-            List<T> results = new ArrayList<>();
-            while (rs.next()) {
-                T instance = (T) clazz.newInstance();
-                for (Field field : clazz.getDeclaredFields()) {
-                    if (!Modifier.isStatic(field.getModifiers())) {
-                        String columnName = field.getName();
-                        Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                        if (colonneAnnotation != null) {
-                            columnName = colonneAnnotation.nom();
-                        }
-                        String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                        Method setterMethod = clazz.getMethod(setterName, field.getType());
-                        Object value = rs.getObject(columnName);
-                        // Conversion de type (même logique que findAll)
-                        if (value instanceof String) {
-                            value = value.toString().replace("'", "''");
-                        }
-                        
-                        if (value instanceof java.util.Date) {
-                            // Handle date fields by converting them to java.sql.Date
-                            value = rs.getDate(columnName);
-                        }
-                        setterMethod.invoke(instance, value);
-                    }
-                }
-                results.add(instance);
-            }
-            rs.close();
-            stmt.close();
-            return results;
-        } else {
+        if (intervalle == null) {
             return new ArrayList<>();
         }
+        String query = meta.getSqlSelect() + " WHERE " + intervalle.colonne.getNom() + " BETWEEN ? AND ?;";
+        return lire(co, meta, "findByInterval", query, intervalle.valeurs());
     }
 
     /**
@@ -622,99 +767,27 @@ public class DAORead {
         System.out.println(f.getId() + " - " + f.getDateFacture() + " - " + f.getMontant());
     }
     * ```
-    * @return Liste d'objets d'un "SELECT *" d'une SGBD avec un "BETWEEN"
+    * @return Liste d'objets d'un "SELECT" d'une SGBD avec un "BETWEEN"
+    * @see #findPageByInterval(Connection, Object, Object, int, String) pagination par clé, sans OFFSET, pour les pages lointaines
     */
     public <T> List<T> findByInterval(Connection co, T obj1, T obj2, int pageNumber, int pageSize) throws Exception {
-        Class<?> clazz = obj1.getClass();
-        Table tableAnnotation = clazz.getAnnotation(Table.class);
-        String tableName = tableAnnotation != null ? tableAnnotation.nom() : clazz.getSimpleName().toLowerCase();
-        // Get non-null field with `Colonne` annotation
-        String fieldName = null;
-        Object lowerBound = null;
-        Object upperBound = null;
-        for (Field field : clazz.getDeclaredFields()) {
-            if (!Modifier.isStatic(field.getModifiers())) {
-                Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                if (colonneAnnotation != null) {
-                    String getterName = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                    Method getterMethod = clazz.getMethod(getterName);
-                    Object value1 = getterMethod.invoke(obj1);
-                    Object value2 = getterMethod.invoke(obj2);
-                    if (value1 != null) {
-                        fieldName = colonneAnnotation.nom();
-                        lowerBound = value1;
-                    }
-                    if (value2 != null) {
-                        upperBound = value2;
-                    }
-                    if(value1.equals(value2)){
-                        continue;
-                    }
-                    break;
-                }
-            }
-        }
+        EntityMetadata meta = EntityMetadata.of(obj1.getClass());
+        Intervalle intervalle = intervalle(meta, obj1, obj2);
         // Build query only if at least one bound and field name are non-null
-        String query = null;
-        if (lowerBound != null || upperBound != null) {
-            // Calculate offset based on page number and page size
-            int offset = (pageNumber - 1) * pageSize;
-            // Construct paginated SQL query
-            query = "SELECT * FROM " + tableName + " WHERE " + fieldName + " BETWEEN ? AND ? LIMIT "+ pageSize + " OFFSET " + offset + ";";
-        }
-        if (query != null) {
-            PreparedStatement stmt = co.prepareStatement(query);
-            if (lowerBound != null) {
-                stmt.setObject(1, lowerBound);
-            } else {
-                stmt.setNull(1, Types.NULL);
-            }
-            
-            if (upperBound != null) {
-                stmt.setObject(2, upperBound);
-            } else {
-                stmt.setNull(2, Types.NULL);
-            }
-            ResultSet rs = stmt.executeQuery();
-            List<T> results = new ArrayList<>();
-            while (rs.next()) {
-                T instance = (T) clazz.newInstance();
-                for (Field field : clazz.getDeclaredFields()) {
-                    if (!Modifier.isStatic(field.getModifiers())) {
-                        String columnName = field.getName();
-                        Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                        if (colonneAnnotation != null) {
-                            columnName = colonneAnnotation.nom();
-                        }
-                        String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                        Method setterMethod = clazz.getMethod(setterName, field.getType());
-                        Object value = rs.getObject(columnName);
-                        // Conversion de type (même logique que findAll)
-                        if (value instanceof String) {
-                            value = value.toString().replace("'", "''");
-                        }
-                        
-                        if (value instanceof java.util.Date) {
-                            // Handle date fields by converting them to java.sql.Date
-                            value = rs.getDate(columnName);
-                        }
-                        setterMethod.invoke(instance, value);
-                    }
-                }
-                results.add(instance);
-            }
-            rs.close();
-            stmt.close();
-            return results;
-        } else {
+        if (intervalle == null) {
             return new ArrayList<>();
         }
+        // Calculate offset based on page number and page size
+        int offset = (pageNumber - 1) * pageSize;
+        // Construct paginated SQL query
+        String query = meta.getSqlSelect() + " WHERE " + intervalle.colonne.getNom() + " BETWEEN ? AND ? LIMIT "+ pageSize + " OFFSET " + offset + ";";
+        return lire(co, meta, "findByInterval", query, intervalle.valeurs());
     }
 
     /**
      * Recherche des éléments dans une table en fonction de critères multiples.
      *
-     * Cette méthode construit dynamiquement une requête SQL `SELECT *` avec une clause `WHERE` 
+     * Cette méthode construit dynamiquement une requête SQL `SELECT` avec une clause `WHERE` 
      * basée sur les propriétés non nulles de l'objet passé en paramètre. Elle utilise l'opérateur `LIKE` 
      * pour effectuer des recherches partielles sur les chaînes de caractères.
      * 
@@ -729,106 +802,1109 @@ public class DAORead {
      * @throws Exception Si une erreur se produit lors de l'exécution de la requête SQL.
      */
     public <T> List<T> findMulticriteria(Connection co, T o,T obj2) throws Exception {
-        Class<?> clazz = o.getClass();
-        Table tableAnnotation = clazz.getAnnotation(Table.class);
-        String tableName = tableAnnotation != null ? tableAnnotation.nom() : clazz.getSimpleName().toLowerCase();
-        // Build WHERE clause dynamically based on non-null fields
-        StringBuilder whereClause = new StringBuilder();
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        // Requête construite une fois par ensemble de champs comparés
+        List<ColumnMetadata> colonnes = meta.getColonnes();
+        BitSet renseignes = new BitSet(colonnes.size());
         List<Object> valuesList = new ArrayList<>();
-        int counter = 0;
-        for (Field field : clazz.getDeclaredFields()) {
-            if (!Modifier.isStatic(field.getModifiers())) {
-                String getterName = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                Method getterMethod = clazz.getMethod(getterName);
-                Object value = getterMethod.invoke(o);
-                Object value2 = getterMethod.invoke(obj2);
-       
-                if (value != null) {
-                    if (value.equals(value2)) {
-                        continue;
-                    }
-                    if (counter > 0) {
-                        whereClause.append(" AND ");
-                    } else {
-                        whereClause.append(" WHERE ");
-                    }
-                    String columnName = field.getName();
-                    Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                    if (colonneAnnotation != null) {
-                        columnName = colonneAnnotation.nom();
-                    }
-                    if (field.getType()==String.class) {
-                        whereClause.append("lower("+columnName + ") LIKE ?");
-                        valuesList.add("%" + ((String) value).toLowerCase() + "%");
-                    } else {
-                        whereClause.append(columnName + " = ?");
-                        valuesList.add(value);
-                    }
-                    
-                    counter++;
-                }
-            }
-        }
-        String query = "SELECT * FROM " + tableName + " " + whereClause.toString() + ";";
-        System.out.println(query);
-        List<T> results;
-        // Set values for prepared statement
-        try (PreparedStatement stmt = co.prepareStatement(query)) {
-            // Set values for prepared statement
-            for (int i = 0; i < valuesList.size(); i++) {
-                stmt.setObject(i + 1, valuesList.get(i));
-                
-            }  try (ResultSet rs = stmt.executeQuery()) {
-                results = new ArrayList<>();
-                while (rs.next()) {
-                    T instance = (T) clazz.newInstance();
-                    for (Field field : clazz.getDeclaredFields()) {
-                        if (!Modifier.isStatic(field.getModifiers())) {
-                            String columnName = field.getName();
-                            Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                            if (colonneAnnotation != null) {
-                                columnName = colonneAnnotation.nom();
-                            }
-                            String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                            Method setterMethod = clazz.getMethod(setterName, field.getType());
-                            Object value = rs.getObject(columnName);
-                            // Conversion de type (same logic as findAll)
-                            if (value instanceof String) {
-                                value = value.toString().replace("'", "''");
-                            }
-
-                            // Conversion de type spécifique pour BigDecimal vers double
-                            if (value instanceof BigDecimal && setterMethod.getParameterTypes()[0] == double.class) {
-                                value = ((BigDecimal) value).doubleValue();
-                            }
-
-                            if (value instanceof Long && setterMethod.getParameterTypes()[0] == int.class) {
-                                value = ((Long) value).intValue();
-                            }
-
-                            if (value instanceof PGInterval && setterMethod.getParameterTypes()[0] == Time.class) {
-                                PGInterval interval = (PGInterval) value;
-
-                                int hour = interval.getHours();
-                                int minutes = interval.getMinutes();
-                                int seconds = interval.getWholeSeconds();
-                                int secFromMilli = interval.getMicroSeconds() / 1000000;
-
-                                // Création de l'objet Time
-                                Time time = new Time(hour,minutes,seconds+secFromMilli);
-                                value = time;
-                            }
-
-
-                            setterMethod.invoke(instance, value);
-                        }
-                    }
-                    results.add(instance);
-                }
+        for (int i = 0; i < colonnes.size(); i++) {
+            ColumnMetadata colonne = colonnes.get(i);
+            Object value = colonne.getAccesseur(mappingMode).get(o);
+            if (value != null && !value.equals(colonne.getAccesseur(mappingMode).get(obj2))) {
+                renseignes.set(i);
+                valuesList.add(colonne.getType() == String.class ? "%" + ((String) value).toLowerCase() + "%" : value);
             }
         }
-        return results;
+        String query = meta.getSqlMulticriteres(renseignes);
+        return lireEnCache(co, meta, "findMulticriteria", query, valuesList);
     }
-}
-
 
+    /**
+    * Pagination par clé (keyset) : la page suivante est lue avec
+    * {@code WHERE pk > <dernière clé> ORDER BY pk LIMIT n} au lieu d'un OFFSET,
+    * si bien que la millième page coûte autant que la première (avec un index
+    * sur la clé). La clé de tri est le champ {@code @PrimaryKey}.
+    *
+     * @param co La connexion au SGBD
+     * @param o L'objet à mapper
+     * @param pageSize Le nombre d'éléments par page
+     * @param continuationToken Le jeton rendu par la page précédente, ou null pour la première page
+     * @example
+     * ```java
+    Page<Produit> page = findPage(connection, new Produit(), 50, null);
+    while (true) {
+        for (Produit p : page.getContent()) {
+            System.out.println(p.getId() + " - " + p.getNom());
+        }
+        if (!page.hasNext()) {
+            break;
+        }
+        page = findPage(connection, new Produit(), 50, page.getContinuationToken());
+    }
+     * ```
+    * @return La page et le jeton de la suivante
+    */
+    public <T> Page<T> findPage(Connection co, T o, int pageSize, String continuationToken) throws Exception {
+        return findPage(co, o, null, pageSize, continuationToken);
+    }
+
+    /**
+    * Pagination par clé triée sur une colonne choisie. La clé primaire est
+    * ajoutée au tri pour départager les doublons ; sans {@code @PrimaryKey},
+    * la colonne de tri doit être unique.
+    *
+     * @param co La connexion au SGBD
+     * @param o L'objet à mapper
+     * @param sortColumn Le champ ou la colonne de tri (null pour la clé primaire)
+     * @param pageSize Le nombre d'éléments par page
+     * @param continuationToken Le jeton rendu par la page précédente, ou null pour la première page
+    * @return La page et le jeton de la suivante
+    */
+    public <T> Page<T> findPage(Connection co, T o, String sortColumn, int pageSize, String continuationToken) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        return lirePage(co, meta, "findPage", null, new ArrayList<>(), clesDeTri(meta, sortColumn), pageSize, continuationToken);
+    }
+
+    /**
+    * Équivalent paginé par clé de {@link #findByCriteria(Connection, Object)},
+    * trié sur la clé primaire.
+    *
+     * @param co La connexion au SGBD
+     * @param o L'objet dont les champs non nuls servent de critères
+     * @param pageSize Le nombre d'éléments par page
+     * @param continuationToken Le jeton rendu par la page précédente, ou null pour la première page
+    * @return La page et le jeton de la suivante
+    */
+    public <T> Page<T> findPageByCriteria(Connection co, T o, int pageSize, String continuationToken) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        List<Object> valuesList = new ArrayList<>();
+        String condition = meta.getConditionCriteres(criteres(meta, o, valuesList));
+        return lirePage(co, meta, "findPageByCriteria", condition, valuesList, clesDeTri(meta, null), pageSize, continuationToken);
+    }
+
+    /**
+    * Équivalent paginé par clé de {@link #findByInterval(Connection, Object, Object)} :
+    * les lignes de l'intervalle sont parcourues dans l'ordre de la colonne de
+    * l'intervalle, puis de la clé primaire.
+    *
+     * @param co La connexion au SGBD
+     * @param obj1 L'objet 1 contenant le premier intervalle
+     * @param obj2 L'objet 2 contenant le second intervalle
+     * @param pageSize Le nombre d'éléments par page
+     * @param continuationToken Le jeton rendu par la page précédente, ou null pour la première page
+    * @return La page et le jeton de la suivante
+    */
+    public <T> Page<T> findPageByInterval(Connection co, T obj1, T obj2, int pageSize, String continuationToken) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(obj1.getClass());
+        Intervalle intervalle = intervalle(meta, obj1, obj2);
+        if (intervalle == null) {
+            return new Page<>(new ArrayList<>(), null);
+        }
+        String nom = intervalle.colonne.getNom();
+        return lirePage(co, meta, "findPageByInterval", nom + " BETWEEN ? AND ?", intervalle.valeurs(), clesDeTri(meta, nom),
+                pageSize, continuationToken);
+    }
+
+    /**
+     * Colonne et bornes d'un intervalle entre deux objets.
+     */
+    private static final class Intervalle {
+
+        final ColumnMetadata colonne;
+        final Object lowerBound;
+        final Object upperBound;
+
+        Intervalle(ColumnMetadata colonne, Object lowerBound, Object upperBound) {
+            this.colonne = colonne;
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+        }
+
+        List<Object> valeurs() {
+            List<Object> valuesList = new ArrayList<>();
+            valuesList.add(lowerBound);
+            valuesList.add(upperBound);
+            return valuesList;
+        }
+    }
+
+    /**
+     * Cherche la colonne d'un intervalle parmi les champs {@code @Colonne} :
+     * la première dont les valeurs diffèrent entre les deux objets, sinon la
+     * dernière dont les valeurs, égales, ne sont pas nulles. Une valeur nulle
+     * d'un seul côté est liée telle quelle.
+     *
+     * @return L'intervalle, ou null si aucun champ {@code @Colonne} n'a de valeur
+     */
+    private Intervalle intervalle(EntityMetadata meta, Object obj1, Object obj2) throws Exception {
+        Intervalle intervalle = null;
+        for (ColumnMetadata colonne : meta.getColonnes()) {
+            if (colonne.getField().getAnnotation(Colonne.class) != null) {
+                Object value1 = colonne.getAccesseur(mappingMode).get(obj1);
+                Object value2 = colonne.getAccesseur(mappingMode).get(obj2);
+                if (value1 != null || value2 != null) {
+                    intervalle = new Intervalle(colonne, value1, value2);
+                }
+                if (Objects.equals(value1, value2)) {
+                    continue;
+                }
+                break;
+            }
+        }
+        return intervalle;
+    }
+
+    /**
+     * Colonnes de tri d'une pagination par clé : la colonne demandée puis la
+     * clé primaire, ou la clé primaire seule.
+     */
+    private static ColumnMetadata[] clesDeTri(EntityMetadata meta, String sortColumn) {
+        ColumnMetadata pk = meta.getPrimaryKey();
+        if (sortColumn == null) {
+            if (pk == null) {
+                throw new IllegalArgumentException("Pagination par clé impossible sans @PrimaryKey ni colonne de tri : "
+                        + meta.getClasse().getName());
+            }
+            return new ColumnMetadata[] {pk};
+        }
+        ColumnMetadata tri = meta.getColonne(sortColumn);
+        if (tri == null) {
+            throw new IllegalArgumentException("Colonne de tri inconnue pour " + meta.getClasse().getName() + " : " + sortColumn);
+        }
+        if (tri.isLazy()) {
+            // Le jeton reprend la valeur de la dernière ligne, qu'une colonne @Lazy n'a pas lue
+            throw new IllegalArgumentException("Colonne de tri @Lazy pour " + meta.getClasse().getName() + " : " + sortColumn);
+        }
+        if (pk == null || pk == tri) {
+            return new ColumnMetadata[] {tri};
+        }
+        return new ColumnMetadata[] {tri, pk};
+    }
+
+    private <T> Page<T> lirePage(Connection co, EntityMetadata meta, String operation, String condition, List<Object> valuesList,
+            ColumnMetadata[] cles, int pageSize, String continuationToken) throws Exception {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Taille de page invalide : " + pageSize);
+        }
+        StringBuilder noms = new StringBuilder();
+        StringBuilder marqueurs = new StringBuilder();
+        for (int i = 0; i < cles.length; i++) {
+            if (i > 0) {
+                noms.append(", ");
+                marqueurs.append(", ");
+            }
+            noms.append(cles[i].getNom());
+            marqueurs.append('?');
+        }
+        String signature = PageToken.signature(operation, meta.getNomTable(), noms.toString(), condition, valuesList);
+        List<String> conditions = new ArrayList<>();
+        if (condition != null && !condition.isEmpty()) {
+            conditions.add("(" + condition + ")");
+        }
+        List<Object> parametres = new ArrayList<>(valuesList);
+        if (continuationToken != null) {
+            // Comparaison de lignes : (a, b) > (?, ?) suit exactement l'ORDER BY a, b
+            // et PostgreSQL la résout par un parcours d'index à partir de la clé
+            conditions.add(cles.length == 1 ? noms + " > ?" : "(" + noms + ") > (" + marqueurs + ")");
+            for (Object valeur : PageToken.decoder(continuationToken, signature)) {
+                parametres.add(valeur);
+            }
+        }
+        StringBuilder query = new StringBuilder(meta.getSqlSelect());
+        if (!conditions.isEmpty()) {
+            query.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        // Une ligne de plus que la page pour savoir s'il y a une page suivante
+        query.append(" ORDER BY ").append(noms).append(" LIMIT ").append(pageSize + 1);
+        List<T> results = lire(co, meta, operation, query.toString(), parametres);
+        if (results.size() <= pageSize) {
+            return new Page<>(results, null);
+        }
+        results.remove(pageSize);
+        T dernier = results.get(pageSize - 1);
+        Object[] valeurs = new Object[cles.length];
+        for (int i = 0; i < cles.length; i++) {
+            valeurs[i] = cles[i].getAccesseur(mappingMode).get(dernier);
+            if (valeurs[i] == null) {
+                throw new IllegalStateException("Clé de tri nulle pour " + meta.getClasse().getName() + "."
+                        + cles[i].getField().getName() + " : pagination par clé impossible");
+            }
+        }
+        return new Page<>(results, PageToken.encoder(signature, valeurs));
+    }
+
+    /**
+     * Champs non nuls de {@code o}, critères de findByCriteria.
+     *
+     * @param valuesList Reçoit les valeurs à lier, dans l'ordre des paramètres
+     * @return Les index, dans {@link EntityMetadata#getColonnes()}, des champs non nuls
+     */
+    BitSet criteres(EntityMetadata meta, Object o, List<Object> valuesList) throws Exception {
+        List<ColumnMetadata> colonnes = meta.getColonnes();
+        BitSet renseignes = new BitSet(colonnes.size());
+        for (int i = 0; i < colonnes.size(); i++) {
+            Object value = colonnes.get(i).getAccesseur(mappingMode).get(o);
+            if (value != null) {
+                renseignes.set(i);
+                valuesList.add(value);
+            }
+        }
+        return renseignes;
+    }
+
+    /**
+    * Lit le résultat d'une requête par curseur : les objets sont créés à la
+    * demande, {@link #getFetchSize()} lignes à la fois, et la mémoire utilisée
+    * ne dépend pas de la taille du résultat.
+    *
+    * Avec PostgreSQL, le curseur n'est utilisé que hors autocommit : s'il est
+    * actif, il est coupé le temps de la lecture puis rétabli à la fermeture.
+    *
+     * @param co La connexion au SGBD
+     * @param o L'objet à mapper
+     * @param query La requete
+     * @example
+     * ```java
+    try (ResultIterator<Personne> it = iterate(connection, new Personne(), "SELECT * FROM personnes")) {
+        while (it.hasNext()) {
+            traiter(it.next());
+        }
+    }
+     * ```
+    * @return Un itérateur à fermer après usage
+    */
+    public <T> ResultIterator<T> iterate(Connection co, T o, String query) throws Exception {
+        return ouvrirCurseur(co, EntityMetadata.of(o.getClass()), "iterate", query, new ArrayList<>());
+    }
+
+    /**
+    * Variante de {@link #iterate(Connection, Object, String)} sous forme de flux.
+    * Le flux doit être fermé (try-with-resources) pour libérer le curseur.
+    *
+     * @param co La connexion au SGBD
+     * @param o L'objet à mapper
+     * @param query La requete
+     * @example
+     * ```java
+    try (Stream<Personne> personnes = stream(connection, new Personne(), "SELECT * FROM personnes")) {
+        personnes.filter(p -> p.getAge() > 18).forEach(System.out::println);
+    }
+     * ```
+    * @return Un flux des objets, à fermer après usage
+    */
+    public <T> Stream<T> stream(Connection co, T o, String query) throws Exception {
+        return iterate(co, o, query).stream();
+    }
+
+    /**
+    * Équivalent par curseur de {@link #findAll(Connection, Object)}.
+    *
+     * @param co La connexion au SGBD
+     * @param o L'objet à mapper
+    * @return Un itérateur à fermer après usage
+    */
+    public <T> ResultIterator<T> iterateAll(Connection co, T o) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        return ouvrirCurseur(co, meta, "iterateAll", meta.getSqlSelect(), new ArrayList<>());
+    }
+
+    /**
+    * Équivalent par curseur de {@link #findAll(Connection, Object)}, sous forme de flux.
+    *
+     * @param co La connexion au SGBD
+     * @param o L'objet à mapper
+    * @return Un flux des objets, à fermer après usage
+    */
+    public <T> Stream<T> streamAll(Connection co, T o) throws Exception {
+        return iterateAll(co, o).stream();
+    }
+
+    /**
+    * Équivalent par curseur de {@link #findByCriteria(Connection, Object)}.
+    *
+     * @param co La connexion au SGBD
+     * @param o L'objet dont les champs non nuls servent de critères
+    * @return Un itérateur à fermer après usage
+    */
+    public <T> ResultIterator<T> iterateByCriteria(Connection co, T o) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        List<Object> valuesList = new ArrayList<>();
+        String query = meta.getSqlCriteres(criteres(meta, o, valuesList), false);
+        return ouvrirCurseur(co, meta, "iterateByCriteria", query, valuesList);
+    }
+
+    /**
+    * Équivalent par curseur de {@link #findByCriteria(Connection, Object)}, sous forme de flux.
+    *
+     * @param co La connexion au SGBD
+     * @param o L'objet dont les champs non nuls servent de critères
+    * @return Un flux des objets, à fermer après usage
+    */
+    public <T> Stream<T> streamByCriteria(Connection co, T o) throws Exception {
+        return iterateByCriteria(co, o).stream();
+    }
+
+    /**
+    * Crée un lot de lectures indépendantes à envoyer en un seul aller-retour.
+    *
+     * @example
+     * ```java
+    ReadBatch lot = dao.readBatch();
+    ReadBatch.Result<Client> clients = lot.findAll(new Client());
+    ReadBatch.Result<Produit> produit = lot.findById(Produit.class, 7);
+    lot.execute(connection);
+     * ```
+    * @return Un lot vide, lié à ce DAO
+    */
+    public ReadBatch readBatch() {
+        return new ReadBatch(this);
+    }
+
+    /**
+     * {@link #find(Connection, Object, String)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> List<T> find(T o, String query) throws Exception {
+        try (Connection co = connexion()) {
+            return find(co, o, query);
+        }
+    }
+
+    /**
+     * {@link #findById(Connection, Class, Object)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> T findById(Class<T> classe, Object pk) throws Exception {
+        try (Connection co = connexion()) {
+            return findById(co, classe, pk);
+        }
+    }
+
+    /**
+     * {@link #findByIds(Connection, Class, Collection)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> Map<Object, T> findByIds(Class<T> classe, Collection<?> ids) throws Exception {
+        try (Connection co = connexion()) {
+            return findByIds(co, classe, ids);
+        }
+    }
+
+    /**
+     * {@link #findAll(Connection, Object)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> List<T> findAll(T o) throws Exception {
+        try (Connection co = connexion()) {
+            return findAll(co, o);
+        }
+    }
+
+    /**
+     * {@link #findAll(Connection, Object, int, int)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> List<T> findAll(T o, int pageNumber, int pageSize) throws Exception {
+        try (Connection co = connexion()) {
+            return findAll(co, o, pageNumber, pageSize);
+        }
+    }
+
+    /**
+     * {@link #findAll(Connection, Class)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> List<T> findAll(Class<T> classe) throws Exception {
+        try (Connection co = connexion()) {
+            return findAll(co, classe);
+        }
+    }
+
+    /**
+     * {@link #findAll(Connection, Class, String...)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> List<T> findAll(Class<T> classe, String... colonnes) throws Exception {
+        try (Connection co = connexion()) {
+            return findAll(co, classe, colonnes);
+        }
+    }
+
+    /**
+     * {@link #findAllColumnar(Connection, Class, String...)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> ColumnBatch findAllColumnar(Class<T> classe, String... colonnes) throws Exception {
+        try (Connection co = connexion()) {
+            return findAllColumnar(co, classe, colonnes);
+        }
+    }
+
+    /**
+     * {@link #findByIntervalColumnar(Connection, Object, Object, String...)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> ColumnBatch findByIntervalColumnar(T obj1, T obj2, String... colonnes) throws Exception {
+        try (Connection co = connexion()) {
+            return findByIntervalColumnar(co, obj1, obj2, colonnes);
+        }
+    }
+
+    /**
+     * {@link #loadLazy(Connection, Object, String...)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> boolean loadLazy(T o, String... champs) throws Exception {
+        try (Connection co = connexion()) {
+            return loadLazy(co, o, champs);
+        }
+    }
+
+    /**
+     * {@link #findByCriteria(Connection, Object)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> List<T> findByCriteria(T o) throws Exception {
+        try (Connection co = connexion()) {
+            return findByCriteria(co, o);
+        }
+    }
+
+    /**
+     * {@link #findByCriteria(Connection, Object, int, int)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> List<T> findByCriteria(T o, int pageNumber, int pageSize) throws Exception {
+        try (Connection co = connexion()) {
+            return findByCriteria(co, o, pageNumber, pageSize);
+        }
+    }
+
+    /**
+     * {@link #findByInterval(Connection, Object, Object)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> List<T> findByInterval(T obj1, T obj2) throws Exception {
+        try (Connection co = connexion()) {
+            return findByInterval(co, obj1, obj2);
+        }
+    }
+
+    /**
+     * {@link #findMulticriteria(Connection, Object, Object)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> List<T> findMulticriteria(T o, T obj2) throws Exception {
+        try (Connection co = connexion()) {
+            return findMulticriteria(co, o, obj2);
+        }
+    }
+
+    /**
+     * {@link #findPage(Connection, Object, int, String)} sur une connexion de la {@link DataSource}.
+     */
+    public <T> Page<T> findPage(T o, int pageSize, String continuationToken) throws Exception {
+        try (Connection co = connexion()) {
+            return findPage(co, o, pageSize, continuationToken);
+        }
+    }
+
+    /**
+    * Lit toute la table en parallèle : la table est découpée en partitions
+    * lues chacune sur sa propre connexion de la {@link DataSource}, dans son
+    * propre thread (virtuel si la JVM le permet). Avec une clé primaire
+    * entière, les partitions sont des intervalles de clé calculés depuis
+    * MIN/MAX ; sinon ce sont des paquets de hachage de la clé
+    * ({@code hashtext}, PostgreSQL uniquement). Une partition en échec annule
+    * les requêtes des autres.
+    *
+    * Les lectures ne sont pas faites dans une même transaction : une écriture
+    * concurrente peut être vue par une partition et pas par une autre.
+    *
+     * @param o L'objet à mapper, avec un champ {@code @PrimaryKey}
+     * @param partitions Le nombre de partitions, donc de connexions utilisées
+     * @example
+     * ```java
+    dao.setDataSource(new ConnectionPool(url, user, password, 8));
+    List<Client> clients = dao.findAllParallel(new Client(), 8);
+     * ```
+    * @return Tous les objets de la table, partition par partition
+    */
+    public <T> List<T> findAllParallel(T o, int partitions) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        List<Partition> parts;
+        try (Connection co = connexion()) {
+            parts = partitionner(co, meta, partitions);
+        }
+        List<List<T>> resultats = lirePartitions(parts,
+                (co, partition) -> this.<T>lire(co, meta, "findAllParallel", partition.sql, partition.valeurs));
+        int total = 0;
+        for (List<T> resultat : resultats) {
+            total += resultat.size();
+        }
+        List<T> objets = new ArrayList<>(total);
+        for (List<T> resultat : resultats) {
+            objets.addAll(resultat);
+        }
+        return objets;
+    }
+
+    /**
+    * Variante de {@link #findAllParallel} qui ne garde pas la table en
+    * mémoire : chaque partition est lue par curseur ({@link #getFetchSize()}
+    * lignes à la fois) et ses objets sont passés au consommateur dès leur
+    * lecture. Le consommateur est appelé depuis plusieurs threads à la fois
+    * et doit donc être thread-safe.
+    *
+     * @param o L'objet à mapper, avec un champ {@code @PrimaryKey}
+     * @param partitions Le nombre de partitions, donc de connexions utilisées
+     * @param consumer Le traitement de chaque objet
+     * @example
+     * ```java
+    LongAdder exportes = new LongAdder();
+    dao.scanAllParallel(new Client(), 8, client -> {
+        index.ajouter(client);
+        exportes.increment();
+    });
+     * ```
+    * @return Le nombre d'objets lus
+    */
+    public <T> long scanAllParallel(T o, int partitions, Consumer<? super T> consumer) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        List<Partition> parts;
+        try (Connection co = connexion()) {
+            parts = partitionner(co, meta, partitions);
+        }
+        List<Long> comptes = lirePartitions(parts, (co, partition) -> {
+            long lignes = 0;
+            try (ResultIterator<T> it = ouvrirCurseur(co, meta, "scanAllParallel", partition.sql, partition.valeurs)) {
+                while (it.hasNext()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException("Lecture parallèle annulée");
+                    }
+                    consumer.accept(it.next());
+                    lignes++;
+                }
+            }
+            return lignes;
+        });
+        long total = 0;
+        for (long lignes : comptes) {
+            total += lignes;
+        }
+        return total;
+    }
+
+    /**
+    * Lecture analytique en colonnes : les valeurs sont rangées dans des
+    * tableaux primitifs (voir {@link ColumnBatch}) au lieu d'un objet par
+    * ligne. La lecture se fait par curseur, {@link #getFetchSize()} lignes à
+    * la fois.
+    *
+     * @param co La connexion au SGBD
+     * @param classe La classe mappée
+     * @param colonnes Les colonnes (ou champs) à lire ; aucune pour toutes les
+     *        colonnes numériques, dates et chaînes hors {@code @Lazy}
+     * @example
+     * ```java
+    ColumnBatch ventes = dao.findAllColumnar(connection, Vente.class, "montant");
+    double total = ventes.doubleStream("montant").parallel().sum();
+     * ```
+    * @return Les colonnes lues
+    */
+    public <T> ColumnBatch findAllColumnar(Connection co, Class<T> classe, String... colonnes) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(classe);
+        List<ColumnMetadata> lues = colonnesAnalytiques(meta, colonnes);
+        return lireColonnes(co, meta, "findAllColumnar", selectColonnes(meta, lues), new ArrayList<>(), lues);
+    }
+
+    /**
+    * Équivalent en colonnes de {@link #findByInterval(Connection, Object, Object)}.
+    *
+     * @param co La connexion au SGBD
+     * @param obj1 L'objet 1 contenant le premier intervalle
+     * @param obj2 L'objet 2 contenant le second intervalle
+     * @param colonnes Les colonnes (ou champs) à lire, comme pour
+     *        {@link #findAllColumnar(Connection, Class, String...)}
+    * @return Les colonnes lues
+    */
+    public <T> ColumnBatch findByIntervalColumnar(Connection co, T obj1, T obj2, String... colonnes) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(obj1.getClass());
+        List<ColumnMetadata> lues = colonnesAnalytiques(meta, colonnes);
+        Intervalle intervalle = intervalle(meta, obj1, obj2);
+        if (intervalle == null) {
+            return new ColumnBatch.Remplissage(lues).terminer();
+        }
+        return lireColonnes(co, meta, "findByIntervalColumnar",
+                selectColonnes(meta, lues) + " WHERE " + intervalle.colonne.getNom() + " BETWEEN ? AND ?", intervalle.valeurs(), lues);
+    }
+
+    private static List<ColumnMetadata> colonnesAnalytiques(EntityMetadata meta, String... colonnes) {
+        List<ColumnMetadata> lues = new ArrayList<>();
+        if (colonnes.length == 0) {
+            for (ColumnMetadata colonne : meta.getColonnes()) {
+                if (!colonne.isLazy() && ColumnBatch.type(colonne.getType()) != null) {
+                    lues.add(colonne);
+                }
+            }
+            if (lues.isEmpty()) {
+                throw new IllegalArgumentException("Aucune colonne lisible en colonnes pour " + meta.getClasse().getName());
+            }
+            return lues;
+        }
+        for (String nom : colonnes) {
+            ColumnMetadata colonne = meta.getColonne(nom);
+            if (colonne == null) {
+                throw new IllegalArgumentException("Colonne inconnue pour " + meta.getClasse().getName() + " : " + nom);
+            }
+            if (ColumnBatch.type(colonne.getType()) == null) {
+                throw new IllegalArgumentException("Type sans représentation en colonne pour " + nom + " : "
+                        + colonne.getType().getName());
+            }
+            lues.add(colonne);
+        }
+        return lues;
+    }
+
+    private static String selectColonnes(EntityMetadata meta, List<ColumnMetadata> colonnes) {
+        StringBuilder query = new StringBuilder("SELECT ");
+        for (int i = 0; i < colonnes.size(); i++) {
+            query.append(i == 0 ? "" : ", ").append(colonnes.get(i).getNom());
+        }
+        return query.append(" FROM ").append(meta.getNomTable()).toString();
+    }
+
+    /**
+     * Lit tout un résultat par curseur dans un {@link ColumnBatch} ; les
+     * colonnes du SELECT sont dans l'ordre de {@code colonnes}.
+     */
+    private ColumnBatch lireColonnes(Connection co, EntityMetadata meta, String operation, String query, List<Object> valuesList,
+            List<ColumnMetadata> colonnes) throws Exception {
+        // PostgreSQL ne lit par curseur qu'à l'intérieur d'une transaction
+        boolean retablirAutoCommit = co.getAutoCommit();
+        if (retablirAutoCommit) {
+            co.setAutoCommit(false);
+        }
+        QueryEvent evenement = avant(operation, meta, query, valuesList.size());
+        ColumnBatch.Remplissage remplissage = new ColumnBatch.Remplissage(colonnes);
+        try (PreparedStatement stmt = co.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSize);
+            for (int i = 0; i < valuesList.size(); i++) {
+                stmt.setObject(i + 1, valuesList.get(i));
+            }
+            Annulation.surveiller(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                executee(evenement);
+                while (rs.next()) {
+                    remplissage.ajouter(rs);
+                }
+            }
+            if (evenement != null) {
+                evenement.hydrate();
+            }
+        } catch (Exception e) {
+            echec(evenement, e);
+            throw e;
+        } finally {
+            Annulation.liberer();
+            if (retablirAutoCommit) {
+                co.setAutoCommit(true);
+            }
+        }
+        apres(evenement, remplissage.size());
+        return remplissage.terminer();
+    }
+
+    private <T> ResultIterator<T> ouvrirCurseur(Connection co, EntityMetadata meta, String operation, String query, List<Object> valuesList) throws Exception {
+        // PostgreSQL ne lit par curseur qu'à l'intérieur d'une transaction
+        boolean retablirAutoCommit = co.getAutoCommit();
+        if (retablirAutoCommit) {
+            co.setAutoCommit(false);
+        }
+        PreparedStatement stmt = null;
+        QueryEvent evenement = avant(operation, meta, query, valuesList.size());
+        try {
+            stmt = co.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize);
+            for (int i = 0; i < valuesList.size(); i++) {
+                stmt.setObject(i + 1, valuesList.get(i));
+            }
+            Annulation.surveiller(stmt);
+            ResultSet rs;
+            try {
+                rs = stmt.executeQuery();
+            } finally {
+                Annulation.liberer();
+            }
+            executee(evenement);
+            RowMapper<T> mapper;
+            try {
+                mapper = meta.getMapper(mappingMode, rs.getMetaData());
+            } catch (Exception e) {
+                rs.close();
+                throw e;
+            }
+            // Le curseur rend compte à l'écouteur quand il est fermé
+            return new ResultIterator<>(co, stmt, rs, mapper, retablirAutoCommit, evenement, listener);
+        } catch (Exception e) {
+            echec(evenement, e);
+            if (stmt != null) {
+                stmt.close();
+            }
+            if (retablirAutoCommit) {
+                co.setAutoCommit(true);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Exécute une lecture et crée un objet par ligne.
+     *
+     * @param operation Le nom de la méthode appelante, pour l'écouteur
+     * @param valuesList Les paramètres de la requête préparée, ou null pour
+     *        exécuter le SQL tel quel avec un simple Statement
+     */
+    <T> List<T> lire(Connection co, EntityMetadata meta, String operation, String query, List<Object> valuesList) throws Exception {
+        return lire(co, meta, operation, query, valuesList, false);
+    }
+
+    /**
+     * @param partiel Si vrai, les colonnes mappées absentes du résultat ne
+     *        sont pas lues (projection)
+     */
+    private <T> List<T> lire(Connection co, EntityMetadata meta, String operation, String query, List<Object> valuesList,
+            boolean partiel) throws Exception {
+        QueryEvent evenement = avant(operation, meta, query, valuesList == null ? 0 : valuesList.size());
+        List<T> results = new ArrayList<>();
+        try (Statement stmt = valuesList == null ? co.createStatement() : co.prepareStatement(query)) {
+            Annulation.surveiller(stmt);
+            ResultSet rs;
+            if (valuesList == null) {
+                rs = stmt.executeQuery(query);
+            } else {
+                PreparedStatement ps = (PreparedStatement) stmt;
+                // Set values for prepared statement
+                for (int i = 0; i < valuesList.size(); i++) {
+                    Object value = valuesList.get(i);
+                    if (value != null) {
+                        ps.setObject(i + 1, value);
+                    } else {
+                        ps.setNull(i + 1, Types.NULL);
+                    }
+                }
+                rs = ps.executeQuery();
+            }
+            executee(evenement);
+            try {
+                RowMapper<T> mapper = meta.getMapper(mappingMode, rs.getMetaData(), partiel);
+                while (rs.next()) {
+                    T instance = mapper.map(rs);
+                    results.add(instance);
+                }
+            } finally {
+                rs.close();
+            }
+            if (evenement != null) {
+                evenement.hydrate();
+            }
+        } catch (Exception e) {
+            echec(evenement, e);
+            throw e;
+        } finally {
+            Annulation.liberer();
+        }
+        apres(evenement, results.size());
+        suivre(meta, results);
+        return results;
+    }
+
+    /**
+     * Relève l'état des objets lus si le dirty checking est actif.
+     */
+    void suivre(EntityMetadata meta, List<?> objets) throws Exception {
+        Snapshots<Object[]> suivi = snapshots;
+        if (suivi != null && meta.getPrimaryKey() != null) {
+            for (Object objet : objets) {
+                suivi.enregistrer(objet, meta.etat(objet, mappingMode));
+            }
+        }
+    }
+
+    /**
+     * @return L'état relevé à la lecture de l'objet, ou null s'il n'est pas suivi
+     */
+    Object[] etatSuivi(Object o) {
+        Snapshots<Object[]> suivi = snapshots;
+        return suivi != null ? suivi.get(o) : null;
+    }
+
+    /**
+     * Relève l'état d'un objet qui vient d'être écrit, s'il est suivi.
+     */
+    void suivreObjet(EntityMetadata meta, Object o) throws Exception {
+        Snapshots<Object[]> suivi = snapshots;
+        if (suivi != null) {
+            suivi.enregistrer(o, meta.etat(o, mappingMode));
+        }
+    }
+
+    /**
+     * Une partition d'une lecture parallèle : sa requête et ses paramètres.
+     */
+    private static final class Partition {
+
+        final String sql;
+        final List<Object> valeurs;
+
+        Partition(String sql, List<Object> valeurs) {
+            this.sql = sql;
+            this.valeurs = valeurs;
+        }
+    }
+
+    @FunctionalInterface
+    private interface LecturePartition<R> {
+        R lire(Connection co, Partition partition) throws Exception;
+    }
+
+    /**
+     * Découpe la table en partitions : intervalles de clé si la clé primaire
+     * est entière, paquets de hachage sinon.
+     */
+    private List<Partition> partitionner(Connection co, EntityMetadata meta, int partitions) throws Exception {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Nombre de partitions invalide : " + partitions);
+        }
+        ColumnMetadata pk = meta.getPrimaryKey();
+        if (pk == null) {
+            throw new IllegalArgumentException("Primary key field not found for class: " + meta.getClasse().getName());
+        }
+        String select = meta.getSqlSelect();
+        String cle = pk.getNom();
+        List<Partition> parts = new ArrayList<>(partitions);
+        if (partitions == 1) {
+            parts.add(new Partition(select, new ArrayList<>()));
+            return parts;
+        }
+        Class<?> type = pk.getType();
+        boolean entiere = type == int.class || type == long.class || type == short.class
+                || type == Integer.class || type == Long.class || type == Short.class;
+        if (!entiere) {
+            for (int i = 0; i < partitions; i++) {
+                List<Object> valeurs = new ArrayList<>();
+                valeurs.add(partitions);
+                valeurs.add(i);
+                parts.add(new Partition(select + " WHERE (hashtext(CAST(" + cle + " AS text)) & 2147483647) % ? = ?", valeurs));
+            }
+            return parts;
+        }
+        long min;
+        long max;
+        try (Statement stmt = co.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT MIN(" + cle + "), MAX(" + cle + ") FROM " + meta.getNomTable())) {
+            rs.next();
+            min = rs.getLong(1);
+            boolean vide = rs.wasNull();
+            max = rs.getLong(2);
+            if (vide) {
+                parts.add(new Partition(select, new ArrayList<>()));
+                return parts;
+            }
+        }
+        // Bornes calculées sur l'étendue ; la première et la dernière partition
+        // restent ouvertes pour couvrir les lignes insérées depuis
+        double largeur = ((double) max - (double) min + 1) / partitions;
+        long precedente = Long.MIN_VALUE;
+        for (int i = 1; i <= partitions; i++) {
+            long borne = i == partitions ? Long.MAX_VALUE : min + (long) Math.ceil(largeur * i);
+            if (borne <= precedente) {
+                continue;
+            }
+            List<Object> valeurs = new ArrayList<>();
+            StringBuilder sql = new StringBuilder(select);
+            if (i == 1) {
+                sql.append(" WHERE ").append(cle).append(" < ?");
+                valeurs.add(borne);
+            } else if (i == partitions) {
+                sql.append(" WHERE ").append(cle).append(" >= ?");
+                valeurs.add(precedente);
+            } else {
+                sql.append(" WHERE ").append(cle).append(" >= ? AND ").append(cle).append(" < ?");
+                valeurs.add(precedente);
+                valeurs.add(borne);
+            }
+            parts.add(new Partition(sql.toString(), valeurs));
+            precedente = borne;
+        }
+        return parts;
+    }
+
+    /**
+     * Lit chaque partition sur sa propre connexion et rend les résultats dans
+     * l'ordre des partitions. À la première erreur, les requêtes en cours
+     * sont annulées et l'erreur est relancée.
+     */
+    private <R> List<R> lirePartitions(List<Partition> parts, LecturePartition<R> lecture) throws Exception {
+        ExecutorService executor = DAOAsync.executorParDefaut(parts.size());
+        ExecutorCompletionService<Object[]> termines = new ExecutorCompletionService<>(executor);
+        List<Annulation> annulations = new ArrayList<>(parts.size());
+        List<Future<Object[]>> futures = new ArrayList<>(parts.size());
+        try {
+            for (int i = 0; i < parts.size(); i++) {
+                int index = i;
+                Partition partition = parts.get(i);
+                Annulation annulation = new Annulation();
+                annulations.add(annulation);
+                futures.add(termines.submit(() -> {
+                    annulation.installer();
+                    try (Connection co = connexion()) {
+                        return new Object[]{index, lecture.lire(co, partition)};
+                    } finally {
+                        Annulation.retirer();
+                    }
+                }));
+            }
+            List<R> resultats = new ArrayList<>(parts.size());
+            for (int i = 0; i < parts.size(); i++) {
+                resultats.add(null);
+            }
+            for (int i = 0; i < parts.size(); i++) {
+                Object[] termine;
+                try {
+                    termine = termines.take().get();
+                } catch (InterruptedException e) {
+                    annulerPartitions(annulations, futures);
+                    throw e;
+                } catch (ExecutionException e) {
+                    annulerPartitions(annulations, futures);
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    }
+                    throw (Error) cause;
+                }
+                @SuppressWarnings("unchecked")
+                R resultat = (R) termine[1];
+                resultats.set((Integer) termine[0], resultat);
+            }
+            return resultats;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void annulerPartitions(List<Annulation> annulations, List<Future<Object[]>> futures) {
+        for (Annulation annulation : annulations) {
+            annulation.annuler();
+        }
+        for (Future<Object[]> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Type SQL des tableaux de clés, ou null si le type de clé n'en a pas
+     * (les clés sont alors liées une à une dans un IN).
+     */
+    private static String typeTableau(Class<?> type) {
+        if (type == int.class || type == Integer.class) {
+            return "integer";
+        } else if (type == long.class || type == Long.class) {
+            return "bigint";
+        } else if (type == short.class || type == Short.class) {
+            return "smallint";
+        } else if (type == String.class) {
+            return "varchar";
+        } else if (type == UUID.class) {
+            return "uuid";
+        }
+        return null;
+    }
+
+    /**
+     * Lit un paquet de clés : {@code = ANY(?)} si le type de clé a un tableau
+     * SQL et que le driver sait le créer, sinon un IN dont le nombre de
+     * paramètres est arrondi pour que le même SQL resserve d'un appel à l'autre.
+     */
+    private <T> List<T> lireParIds(Connection co, EntityMetadata meta, ColumnMetadata pk, String typeTableau,
+            List<Object> ids) throws Exception {
+        String select = meta.getSqlSelect() + " WHERE " + pk.getNom();
+        List<Object> valuesList = new ArrayList<>();
+        if (typeTableau != null) {
+            Array tableau = null;
+            try {
+                tableau = co.createArrayOf(typeTableau, ids.toArray());
+            } catch (SQLFeatureNotSupportedException e) {
+                // Driver sans tableaux : IN ci-dessous
+            }
+            if (tableau != null) {
+                valuesList.add(tableau);
+                try {
+                    return lire(co, meta, "findByIds", select + " = ANY(?)", valuesList);
+                } finally {
+                    tableau.free();
+                }
+            }
+        }
+        // Arrondi à la puissance de deux suivante : peu de formes de SQL différentes
+        int parametres = ids.size() == 1 ? 1
+                : Math.max(ids.size(), Math.min(idChunkSize, Integer.highestOneBit(ids.size() - 1) << 1));
+        StringBuilder sql = new StringBuilder(select.length() + 6 + parametres * 3).append(select).append(" IN (");
+        for (int i = 0; i < parametres; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            // Les places en trop répètent la dernière clé
+            valuesList.add(ids.get(Math.min(i, ids.size() - 1)));
+        }
+        sql.append(')');
+        return lire(co, meta, "findByIds", sql.toString(), valuesList);
+    }
+
+    /**
+     * Comme {@link #lire}, en passant par le {@link QueryCache} pour les
+     * classes {@code @Cacheable}. Seules les lectures en autocommit sont mises
+     * en cache, pour ne pas partager des lignes non validées.
+     */
+    private <T> List<T> lireEnCache(Connection co, EntityMetadata meta, String operation, String query, List<Object> valuesList) throws Exception {
+        QueryCache cache = queryCache;
+        if (cache == null || !meta.isCacheable()) {
+            return lire(co, meta, operation, query, valuesList);
+        }
+        List<T> enCache = cache.get(meta, query, valuesList, mappingMode);
+        if (enCache != null) {
+            suivre(meta, enCache);
+            return enCache;
+        }
+        long generation = cache.generation(meta);
+        List<T> results = lire(co, meta, operation, query, valuesList);
+        if (co.getAutoCommit()) {
+            cache.put(meta, query, valuesList, results, generation, mappingMode);
+        }
+        return results;
+    }
+
+    /**
+     * Début d'une requête : prévient l'écouteur et démarre la mesure.
+     *
+     * @return L'événement à compléter, ou null si aucun écouteur n'est installé
+     */
+    QueryEvent avant(String operation, EntityMetadata meta, String sql, int bindCount) {
+        return avant(operation, meta.getNomTable(), sql, bindCount);
+    }
+
+    QueryEvent avant(String operation, String table, String sql, int bindCount) {
+        if (listener == DaoListener.NOOP) {
+            return null;
+        }
+        QueryEvent evenement = new QueryEvent(operation, table, sql, bindCount);
+        listener.beforeQuery(evenement);
+        evenement.demarrer();
+        return evenement;
+    }
+
+    static void executee(QueryEvent evenement) {
+        if (evenement != null) {
+            evenement.executee();
+        }
+    }
+
+    void apres(QueryEvent evenement, long lignes) {
+        if (evenement != null) {
+            evenement.terminer(lignes, null);
+            listener.afterQuery(evenement);
+        }
+    }
+
+    void echec(QueryEvent evenement, Exception e) {
+        if (evenement != null) {
+            evenement.terminer(0, e);
+            listener.afterQuery(evenement);
+        }
+    }
+}
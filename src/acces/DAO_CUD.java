@@ -1,20 +1,105 @@
 package acces;
 
-import annotation.Colonne;
-import annotation.PrimaryKey;
-import annotation.Table;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
 
 public class DAO_CUD extends DAORead {
+
+    // Limite de paramètres d'une requête pour le protocole PostgreSQL
+    private static final int MAX_PARAMETRES = 32767;
+
+    private StatementCache statementCache = new StatementCache(64);
+    private int batchSize = 500;
+    private boolean multiRowInsert = false;
+    private CopyFormat copyFormat = CopyFormat.TEXT;
+    private boolean generatedKeys = true;
+
+    /**
+     * @return Le cache des requêtes préparées d'insert/update/delete,
+     *         avec ses compteurs de hits et de misses
+     */
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    /**
+     * Remplace le cache des requêtes préparées (par exemple pour changer sa
+     * capacité, ou {@code new StatementCache(0)} pour le désactiver).
+     *
+     * @param statementCache Le nouveau cache
+     */
+    public void setStatementCache(StatementCache statementCache) {
+        this.statementCache = statementCache;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize Nombre d'objets envoyés par lot dans insertAll,
+     *        updateAll et deleteAll (500 par défaut)
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Taille de lot invalide : " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public boolean isMultiRowInsert() {
+        return multiRowInsert;
+    }
+
+    /**
+     * @param multiRowInsert Si vrai, insertAll envoie chaque lot sous forme
+     *        d'un seul {@code INSERT ... VALUES (...), (...)} au lieu d'un
+     *        batch JDBC d'INSERT unitaires
+     */
+    public void setMultiRowInsert(boolean multiRowInsert) {
+        this.multiRowInsert = multiRowInsert;
+    }
+
+    public CopyFormat getCopyFormat() {
+        return copyFormat;
+    }
+
+    /**
+     * @param copyFormat Format utilisé par copyIn : {@link CopyFormat#TEXT}
+     *        (par défaut) ou {@link CopyFormat#BINARY}
+     */
+    public void setCopyFormat(CopyFormat copyFormat) {
+        this.copyFormat = copyFormat;
+    }
+
+    public boolean isGeneratedKeys() {
+        return generatedKeys;
+    }
+
+    /**
+     * @param generatedKeys Si vrai (par défaut), insert et insertAll relisent
+     *        la clé générée par la base ({@code RETURNING}) et l'écrivent dans
+     *        le champ {@code @PrimaryKey} de chaque objet ; copyIn ne le fait pas
+     */
+    public void setGeneratedKeys(boolean generatedKeys) {
+        this.generatedKeys = generatedKeys;
+    }
     
     /**
     * Permet d'éxécuter une requete vers une base
@@ -39,6 +124,13 @@ public class DAO_CUD extends DAORead {
             stmt = con.createStatement();
             stmt.executeUpdate(query);
         } finally {
+            // Le SQL libre peut toucher n'importe quelle ligne
+            if (getEntityCache() != null) {
+                getEntityCache().clear();
+            }
+            if (getQueryCache() != null) {
+                getQueryCache().clear();
+            }
             if (stmt != null) {
                 stmt.close();
             }
@@ -46,7 +138,9 @@ public class DAO_CUD extends DAORead {
     }
     
     /**
-    * Insère une ligne vers une SGBD à partir d'un objet
+    * Insère une ligne vers une SGBD à partir d'un objet. La clé primaire
+    * n'est pas écrite : celle générée par la base est relue dans l'objet
+    * (voir {@link #setGeneratedKeys(boolean)}).
     *
     * @param con La connexion vers la base 
     * @param obj L'objet contenant les données
@@ -75,75 +169,33 @@ public class DAO_CUD extends DAORead {
     produit.setPrix(49.99);
 
     insert(connection, produit);
+    System.out.println(produit.getId()); // Clé générée par la base
     */
     public <T> void insert(Connection con, T obj) throws Exception {
-        // Retrieve table and column information
-        Class<?> clazz = obj.getClass();
-        Table tableAnnotation = clazz.getAnnotation(Table.class);
-        String tableName = tableAnnotation != null ? tableAnnotation.nom() : clazz.getSimpleName().toLowerCase();
-
-        List<String> columnNamesList = new ArrayList<>();
-        List<Object> valuesList = new ArrayList<>();
-
-        // Separate primary key handling
-        Field primaryKeyField = null;
-
-        for (Field field : clazz.getDeclaredFields()) {
-            if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())) {
-                String getterName = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-
-                // Check for both @PrimaryKey and @Colonne annotations
-                if (field.getAnnotation(PrimaryKey.class) != null) {
-                    primaryKeyField = field;
-                    continue; // Skip primary key for insertion
-                } else if (field.getAnnotation(Colonne.class) != null) {
-                    Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                    String columnName = colonneAnnotation != null ? colonneAnnotation.nom() : field.getName();
-                    columnNamesList.add(columnName);
-                }
-
-                Method getterMethod = clazz.getMethod(getterName);
-                Object value = getterMethod.invoke(obj);
-
-                // Type-specific handling for non-primary key fields
-                if (value instanceof String) {
-                    valuesList.add("'" + value + "'");
-                } else if (value instanceof Number) {
-                    valuesList.add(value.toString());
-                } else if (value instanceof Date) {
-                    valuesList.add("'" + ((Date) value).toString() + "'");
-                } else {
-                    valuesList.add(value);
-                }
-            }
-        }
+        EntityMetadata meta = EntityMetadata.of(obj.getClass());
 
         // Handle potential missing primary key information
-        if (primaryKeyField == null) {
+        if (meta.getPrimaryKey() == null) {
             throw new IllegalArgumentException("Primary key field not found for object: " + obj);
         }
 
-        // Construct query excluding primary key
-        String columnNames = String.join(", ", columnNamesList);
-        String values = valuesList.stream()
-                .map(Object::toString)
-                .collect(Collectors.joining(", "));
-        String query = "INSERT INTO " + tableName + " (" + columnNames + ") VALUES (" + values + ");";
-
-        Statement stmt = null;
-        try {
-            stmt = con.createStatement();
-            stmt.executeUpdate(query);
-        } finally {
-            if (stmt != null) {
-                stmt.close();
-            }
-        }
+        // Une seule requête préparée par classe, la clé primaire est exclue
+        List<ColumnMetadata> colonnes = meta.getColonnesInsert();
+        ColumnMetadata cle = cleGeneree(meta);
+        executerUnitaire(con, "insert", meta, meta.getSqlInsert(), colonnes.size(), obj,
+                (stmt, o) -> lier(stmt, 1, colonnes, o), cle, cle == null ? null : Collections.singletonList(obj));
+        invalider(meta, obj);
     }
 
     /**
     * Mettre à jour une ou des ligne(s) vers une SGBD à partir d'un objet
     *
+    * Avec {@link #setDirtyChecking(boolean)}, un objet lu par ce DAO n'écrit
+    * que les colonnes modifiées depuis sa lecture, et rien s'il est inchangé.
+    * Sinon, une colonne {@code @Lazy} que la lecture de l'objet n'a pas
+    * chargée n'est pas écrite tant qu'elle est nulle ; chargée par
+    * {@link #loadLazy}, elle l'est, même remise à null.
+    *
     * @param con La connexion vers la base 
     * @example
     * ```java
@@ -173,66 +225,51 @@ public class DAO_CUD extends DAORead {
     * @param obj L'objet contenant les données
     */
     public <T> void update(Connection con, T obj) throws Exception {
-        // Retrieve table and column information
-        Class<?> clazz = obj.getClass();
-        Table tableAnnotation = clazz.getAnnotation(Table.class);
-        String tableName = tableAnnotation != null ? tableAnnotation.nom() : clazz.getSimpleName().toLowerCase();
-
-        // Separate primary key handling
-        String primaryKeyField = null;
-        Object primaryKeyValue = null;
+        EntityMetadata meta = EntityMetadata.of(obj.getClass());
 
         // Identify primary key field and value
-        for (Field field : clazz.getDeclaredFields()) {
-            if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())) {
-                if (field.getAnnotation(PrimaryKey.class) != null) {
-                    field.setAccessible(true);
-                    primaryKeyField = field.getName();
-                    Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                    if (colonneAnnotation != null) {
-                        primaryKeyField = colonneAnnotation.nom();
-                    }
-                    primaryKeyValue = field.get(obj);
-                    break;
-                }
-            }
+        ColumnMetadata primaryKey = meta.getPrimaryKey();
+        Object primaryKeyValue = null;
+        if (primaryKey != null && !primaryKey.isStatic() && !primaryKey.isFinal()) {
+            primaryKeyValue = primaryKey.getAccesseur(getMappingMode()).get(obj);
         }
 
         // Handle missing primary key
-        if (primaryKeyField == null || primaryKeyValue == null) {
+        if (primaryKeyValue == null) {
             throw new IllegalArgumentException("Primary key field or value not found for object: " + obj);
         }
 
-        // Construct SET clause
-        List<String> updatePairs = new ArrayList<>();
-        for (Field field : clazz.getDeclaredFields()) {
-            if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers()) && !field.equals(primaryKeyField)) {
-                String getterName = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
-                Method getterMethod = clazz.getMethod(getterName);
-                Object value = getterMethod.invoke(obj);
-
-                String columnName = field.getAnnotation(Colonne.class) != null ? field.getAnnotation(Colonne.class).nom() : field.getName();
-                String updatePair = columnName + " = " + getValueString(value);
-                updatePairs.add(updatePair);
+        // SET sur toutes les colonnes sauf la clé primaire, liée en dernier dans le WHERE
+        // (la requête est visible par un DaoListener, voir setListener)
+        String query = meta.getSqlUpdate();
+        List<ColumnMetadata> colonnes = meta.getColonnesUpdate();
+
+        // Objet suivi (dirty checking) : seulement les colonnes modifiées depuis la lecture ;
+        // sinon toutes, sauf les colonnes @Lazy nulles que la lecture n'a pas chargées
+        Object[] etat = etatSuivi(obj);
+        BitSet modifiees = etat != null ? meta.modifiees(etat, obj, getMappingMode()) : meta.sansLazyNonChargees(obj, getMappingMode());
+        if (modifiees != null) {
+            if (modifiees.isEmpty()) {
+                return;
+            }
+            query = meta.getSqlUpdate(modifiees);
+            List<ColumnMetadata> toutes = colonnes;
+            colonnes = new ArrayList<>(modifiees.cardinality());
+            for (int i = modifiees.nextSetBit(0); i >= 0; i = modifiees.nextSetBit(i + 1)) {
+                colonnes.add(toutes.get(i));
             }
         }
 
-        String setClause = String.join(", ", updatePairs);
-
-        // Construct UPDATE query
-        String query = "UPDATE " + tableName + " SET " + setClause + " WHERE " + primaryKeyField + " = " + getValueString(primaryKeyValue);
-
-        // Print query for debugging (optional)
-        System.out.println(query);
-
-        Statement stmt = null;
-        try {
-            stmt = con.createStatement();
-            stmt.executeUpdate(query);
-        } finally {
-            if (stmt != null) {
-                stmt.close();
-            }
+        List<ColumnMetadata> set = colonnes;
+        Object valeurPk = primaryKeyValue;
+        executerUnitaire(con, "update", meta, query, set.size() + 1, obj, (stmt, o) -> {
+            int index = lier(stmt, 1, set, o);
+            ColumnMetadata.lierValeur(stmt, index, valeurPk);
+        });
+        invalider(meta, obj);
+        if (isDirtyChecking()) {
+            // L'objet correspond maintenant à la ligne en base
+            suivreObjet(meta, obj);
         }
     }
 
@@ -265,51 +302,615 @@ public class DAO_CUD extends DAORead {
     */
     public <T> void delete(Connection con, T obj) throws Exception {
         // Retrieve table and primary key information similar to the `update` function
-        Class<?> clazz = obj.getClass();
-        Table tableAnnotation = clazz.getAnnotation(Table.class);
-        String tableName = tableAnnotation != null ? tableAnnotation.nom() : clazz.getSimpleName().toLowerCase();
+        EntityMetadata meta = EntityMetadata.of(obj.getClass());
 
-        String primaryKeyField = null;
+        ColumnMetadata primaryKey = meta.getPrimaryKey();
         Object primaryKeyValue = null;
-        for (Field field : clazz.getDeclaredFields()) {
-            if (field.getAnnotation(PrimaryKey.class) != null) {
-                primaryKeyField = field.getName();
-                Colonne colonneAnnotation = field.getAnnotation(Colonne.class);
-                if (colonneAnnotation != null) {
-                    primaryKeyField = colonneAnnotation.nom();
+        if (primaryKey != null) {
+            primaryKeyValue = primaryKey.getAccesseur(getMappingMode()).get(obj);
+        }
+
+        if (primaryKeyValue == null) {
+            throw new IllegalArgumentException("Primary key field and value not found for object: " + obj);
+        }
+
+        Object valeurPk = primaryKeyValue;
+        executerUnitaire(con, "delete", meta, meta.getSqlDelete(), 1, obj,
+                (stmt, o) -> ColumnMetadata.lierValeur(stmt, 1, valeurPk));
+        invalider(meta, obj);
+        detach(obj);
+    }
+
+    /**
+    * Insère une liste d'objets par lots de {@link #getBatchSize()} objets
+    * (addBatch/executeBatch), ou en INSERT multi-lignes si
+    * {@link #setMultiRowInsert(boolean)} est activé. Les clés générées sont
+    * relues dans les objets, dans l'ordre de la liste.
+    * La transaction reste à la charge de l'appelant.
+    *
+    * @param con La connexion vers la base
+    * @param objs Les objets à insérer, tous de la même classe
+    * @example
+    * ```java
+    List<Produit> produits = ...;
+    BatchResult resultat = insertAll(connection, produits);
+    System.out.println(resultat.getTotalUpdateCount() + " lignes insérées");
+    * ```
+    * @return Le nombre de lignes modifiées par lot
+    */
+    public <T> BatchResult insertAll(Connection con, List<T> objs) throws Exception {
+        BatchResult resultat = new BatchResult();
+        if (objs.isEmpty()) {
+            return resultat;
+        }
+        EntityMetadata meta = metadata(objs);
+        if (meta.getPrimaryKey() == null) {
+            throw new IllegalArgumentException("Primary key field not found for object: " + objs.get(0));
+        }
+        List<ColumnMetadata> colonnes = meta.getColonnesInsert();
+        ColumnMetadata cle = cleGeneree(meta);
+
+        if (multiRowInsert && !colonnes.isEmpty()) {
+            int parRequete = Math.min(batchSize, MAX_PARAMETRES / colonnes.size());
+            for (int debut = 0; debut < objs.size(); debut += parRequete) {
+                List<T> lot = objs.subList(debut, Math.min(debut + parRequete, objs.size()));
+                int lignes = executerUnitaire(con, "insertAll", meta, meta.getSqlInsertMultiple(lot.size()),
+                        lot.size() * colonnes.size(), lot, (stmt, l) -> {
+                            int index = 1;
+                            for (T obj : l) {
+                                index = lier(stmt, index, colonnes, obj);
+                            }
+                        }, cle, lot);
+                resultat.ajouter(new int[]{lignes}, lot.size());
+                for (T obj : lot) {
+                    invalider(meta, obj);
                 }
-                primaryKeyValue = clazz.getMethod("get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1)).invoke(obj);
-                break;
             }
+            return resultat;
         }
 
-        if (primaryKeyField == null || primaryKeyValue == null) {
-            throw new IllegalArgumentException("Primary key field and value not found for object: " + obj);
+        executerParLots(con, "insertAll", meta, meta.getSqlInsert(), colonnes.size(), objs, resultat,
+                (stmt, obj) -> lier(stmt, 1, colonnes, obj), cle);
+        return resultat;
+    }
+
+    /**
+    * Insère l'objet, ou met à jour la ligne de même clé primaire si elle
+    * existe déjà, en une seule requête :
+    * {@code INSERT ... ON CONFLICT (pk) DO UPDATE SET c = EXCLUDED.c...}
+    * (PostgreSQL 9.5+). La clé primaire de l'objet est écrite telle quelle.
+    *
+    * @param con La connexion vers la base
+    * @param obj L'objet, avec sa clé primaire renseignée
+    * @example
+    * ```java
+    Produit produit = produitDuCatalogueDistant();
+    upsert(connection, produit); // Pas de SELECT préalable
+    * ```
+    */
+    public <T> void upsert(Connection con, T obj) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(obj.getClass());
+        if (meta.getPrimaryKey() == null) {
+            throw new IllegalArgumentException("Primary key field not found for object: " + obj);
+        }
+        List<ColumnMetadata> colonnes = meta.getColonnesUpsert();
+        executerUnitaire(con, "upsert", meta, meta.getSqlUpsert(), colonnes.size(), obj,
+                (stmt, o) -> lier(stmt, 1, colonnes, o));
+        invalider(meta, obj);
+        detach(obj);
+    }
+
+    /**
+    * Variante par lots de {@link #upsert(Connection, Object)}, avec la même
+    * requête préparée et {@link #getBatchSize()} objets par lot.
+    * La transaction reste à la charge de l'appelant.
+    *
+    * @param con La connexion vers la base
+    * @param objs Les objets, tous de la même classe et avec leur clé primaire
+    * @return Le nombre de lignes insérées ou modifiées par lot
+    */
+    public <T> BatchResult upsertAll(Connection con, List<T> objs) throws Exception {
+        BatchResult resultat = new BatchResult();
+        if (objs.isEmpty()) {
+            return resultat;
+        }
+        EntityMetadata meta = metadata(objs);
+        if (meta.getPrimaryKey() == null) {
+            throw new IllegalArgumentException("Primary key field not found for object: " + objs.get(0));
         }
+        List<ColumnMetadata> colonnes = meta.getColonnesUpsert();
+        try {
+            executerParLots(con, "upsertAll", meta, meta.getSqlUpsert(), colonnes.size(), objs, resultat,
+                    (stmt, obj) -> lier(stmt, 1, colonnes, obj));
+        } finally {
+            for (T obj : objs) {
+                detach(obj);
+            }
+        }
+        return resultat;
+    }
 
-        String query = "DELETE FROM " + tableName + " WHERE " + primaryKeyField + " = " + (primaryKeyValue instanceof String ? "'" + primaryKeyValue + "'" : primaryKeyValue);
+    /**
+    * Met à jour une liste d'objets par lots de {@link #getBatchSize()} objets
+    * avec la même requête préparée que {@link #update(Connection, Object)}.
+    * Les objets lus sans certaines colonnes {@code @Lazy}, restées nulles,
+    * sont regroupés par requête sans ces colonnes. La transaction reste à la charge de l'appelant.
+    *
+    * @param con La connexion vers la base
+    * @param objs Les objets à mettre à jour, tous de la même classe
+    * @return Le nombre de lignes modifiées par lot
+    */
+    public <T> BatchResult updateAll(Connection con, List<T> objs) throws Exception {
+        BatchResult resultat = new BatchResult();
+        if (objs.isEmpty()) {
+            return resultat;
+        }
+        EntityMetadata meta = metadata(objs);
+        ColumnMetadata primaryKey = meta.getPrimaryKey();
+        if (primaryKey == null || primaryKey.isStatic() || primaryKey.isFinal()) {
+            throw new IllegalArgumentException("Primary key field not found for object: " + objs.get(0));
+        }
+        ColumnAccessor accesseurPk = primaryKey.getAccesseur(getMappingMode());
+        if (meta.getColonnesLazy().isEmpty()) {
+            mettreAJourParLots(con, meta, accesseurPk, meta.getSqlUpdate(), meta.getColonnesUpdate(), objs, resultat);
+            return resultat;
+        }
+        // Une requête par combinaison de colonnes @Lazy non chargées, pour ne pas les effacer
+        Map<BitSet, List<T>> groupes = new LinkedHashMap<>();
+        List<T> completes = new ArrayList<>();
+        for (T obj : objs) {
+            BitSet ecrites = meta.sansLazyNonChargees(obj, getMappingMode());
+            if (ecrites == null) {
+                completes.add(obj);
+            } else if (!ecrites.isEmpty()) {
+                groupes.computeIfAbsent(ecrites, k -> new ArrayList<>()).add(obj);
+            }
+        }
+        if (!completes.isEmpty()) {
+            mettreAJourParLots(con, meta, accesseurPk, meta.getSqlUpdate(), meta.getColonnesUpdate(), completes, resultat);
+        }
+        for (Map.Entry<BitSet, List<T>> groupe : groupes.entrySet()) {
+            BitSet ecrites = groupe.getKey();
+            List<ColumnMetadata> set = new ArrayList<>(ecrites.cardinality());
+            for (int i = ecrites.nextSetBit(0); i >= 0; i = ecrites.nextSetBit(i + 1)) {
+                set.add(meta.getColonnesUpdate().get(i));
+            }
+            mettreAJourParLots(con, meta, accesseurPk, meta.getSqlUpdate(ecrites), set, groupe.getValue(), resultat);
+        }
+        return resultat;
+    }
 
-        Statement stmt = null;
+    private <T> void mettreAJourParLots(Connection con, EntityMetadata meta, ColumnAccessor accesseurPk, String query,
+            List<ColumnMetadata> set, List<T> objs, BatchResult resultat) throws Exception {
+        executerParLots(con, "updateAll", meta, query, set.size() + 1, objs, resultat, (stmt, obj) -> {
+            Object primaryKeyValue = accesseurPk.get(obj);
+            if (primaryKeyValue == null) {
+                throw new IllegalArgumentException("Primary key field or value not found for object: " + obj);
+            }
+            int index = lier(stmt, 1, set, obj);
+            ColumnMetadata.lierValeur(stmt, index, primaryKeyValue);
+        });
+        if (isDirtyChecking()) {
+            // Comme update : les objets écrits correspondent maintenant aux lignes en base
+            for (T obj : objs) {
+                suivreObjet(meta, obj);
+            }
+        }
+    }
+
+    /**
+    * Supprime une liste d'objets (par clé primaire) par lots de
+    * {@link #getBatchSize()} objets. La transaction reste à la charge de l'appelant.
+    *
+    * @param con La connexion vers la base
+    * @param objs Les objets à supprimer, tous de la même classe
+    * @return Le nombre de lignes supprimées par lot
+    */
+    public <T> BatchResult deleteAll(Connection con, List<T> objs) throws Exception {
+        BatchResult resultat = new BatchResult();
+        if (objs.isEmpty()) {
+            return resultat;
+        }
+        EntityMetadata meta = metadata(objs);
+        ColumnMetadata primaryKey = meta.getPrimaryKey();
+        if (primaryKey == null) {
+            throw new IllegalArgumentException("Primary key field not found for object: " + objs.get(0));
+        }
+        ColumnAccessor accesseurPk = primaryKey.getAccesseur(getMappingMode());
+        executerParLots(con, "deleteAll", meta, meta.getSqlDelete(), 1, objs, resultat, (stmt, obj) -> {
+            Object primaryKeyValue = accesseurPk.get(obj);
+            if (primaryKeyValue == null) {
+                throw new IllegalArgumentException("Primary key field and value not found for object: " + obj);
+            }
+            ColumnMetadata.lierValeur(stmt, 1, primaryKeyValue);
+        });
+        for (T obj : objs) {
+            detach(obj);
+        }
+        return resultat;
+    }
+
+    /**
+     * {@link #execute(Connection, String)} sur une connexion de la {@link #getDataSource() DataSource}.
+     */
+    public void execute(String query) throws Exception {
+        try (Connection con = connexion()) {
+            execute(con, query);
+        }
+    }
+
+    /**
+     * {@link #insert(Connection, Object)} sur une connexion de la {@link #getDataSource() DataSource}.
+     */
+    public <T> void insert(T obj) throws Exception {
+        try (Connection con = connexion()) {
+            insert(con, obj);
+        }
+    }
+
+    /**
+     * {@link #update(Connection, Object)} sur une connexion de la {@link #getDataSource() DataSource}.
+     */
+    public <T> void update(T obj) throws Exception {
+        try (Connection con = connexion()) {
+            update(con, obj);
+        }
+    }
+
+    /**
+     * {@link #delete(Connection, Object)} sur une connexion de la {@link #getDataSource() DataSource}.
+     */
+    public <T> void delete(T obj) throws Exception {
+        try (Connection con = connexion()) {
+            delete(con, obj);
+        }
+    }
+
+    /**
+     * {@link #insertAll(Connection, List)} sur une connexion de la {@link #getDataSource() DataSource}.
+     */
+    public <T> BatchResult insertAll(List<T> objs) throws Exception {
+        try (Connection con = connexion()) {
+            return insertAll(con, objs);
+        }
+    }
+
+    /**
+     * {@link #upsert(Connection, Object)} sur une connexion de la {@link #getDataSource() DataSource}.
+     */
+    public <T> void upsert(T obj) throws Exception {
+        try (Connection con = connexion()) {
+            upsert(con, obj);
+        }
+    }
+
+    /**
+     * {@link #upsertAll(Connection, List)} sur une connexion de la {@link #getDataSource() DataSource}.
+     */
+    public <T> BatchResult upsertAll(List<T> objs) throws Exception {
+        try (Connection con = connexion()) {
+            return upsertAll(con, objs);
+        }
+    }
+
+    /**
+     * {@link #updateAll(Connection, List)} sur une connexion de la {@link #getDataSource() DataSource}.
+     */
+    public <T> BatchResult updateAll(List<T> objs) throws Exception {
+        try (Connection con = connexion()) {
+            return updateAll(con, objs);
+        }
+    }
+
+    /**
+     * {@link #deleteAll(Connection, List)} sur une connexion de la {@link #getDataSource() DataSource}.
+     */
+    public <T> BatchResult deleteAll(List<T> objs) throws Exception {
+        try (Connection con = connexion()) {
+            return deleteAll(con, objs);
+        }
+    }
+
+    /**
+    * Charge des objets en masse avec {@code COPY table (colonnes) FROM STDIN}
+    * de PostgreSQL. Les colonnes sont celles de l'insert (noms {@code @Colonne},
+    * clé primaire exclue) ; les lignes sont encodées au fil de l'itération dans
+    * un tampon de taille fixe, sans jamais construire la totalité des données.
+    *
+    * @param con La connexion PostgreSQL
+    * @param objs Les objets à charger, tous de la même classe
+    * @example
+    * ```java
+    DAO_CUD dao = new DAO_CUD();
+    dao.setCopyFormat(CopyFormat.BINARY);
+    long lignes = dao.copyIn(connection, produits);
+    * ```
+    * @return Le nombre de lignes copiées
+    */
+    public <T> long copyIn(Connection con, Iterable<T> objs) throws Exception {
+        Iterator<T> it = objs.iterator();
+        if (!it.hasNext()) {
+            return 0;
+        }
+        T premier = it.next();
+        EntityMetadata meta = EntityMetadata.of(premier.getClass());
+        CopyManager copyManager = con.unwrap(PGConnection.class).getCopyAPI();
+        CopyIn copyIn = copyManager.copyIn(meta.getSqlCopy(copyFormat));
+        CopySink sink = new CopySink() {
+            @Override
+            public void writeToCopy(byte[] buf, int off, int siz) throws SQLException {
+                copyIn.writeToCopy(buf, off, siz);
+            }
+
+            @Override
+            public long endCopy() throws SQLException {
+                return copyIn.endCopy();
+            }
+
+            @Override
+            public void cancelCopy() throws SQLException {
+                copyIn.cancelCopy();
+            }
+        };
+        return copyIn(sink, meta, premier, it);
+    }
+
+    /**
+    * Variante de {@link #copyIn(Connection, Iterable)} pour un flux : les objets
+    * sont consommés au fur et à mesure. Le flux n'est pas fermé.
+    *
+    * @param con La connexion PostgreSQL
+    * @param objs Les objets à charger, tous de la même classe
+    * @return Le nombre de lignes copiées
+    */
+    public <T> long copyIn(Connection con, Stream<T> objs) throws Exception {
+        return copyIn(con, (Iterable<T>) objs::iterator);
+    }
+
+    /**
+    * Encode des objets au format COPY vers un destinataire quelconque (par
+    * exemple un faux {@link CopySink} en test). Le SQL à ouvrir côté base est
+    * donné par {@link EntityMetadata#getSqlCopy(CopyFormat)}.
+    *
+    * @param sink Le destinataire des octets
+    * @param clazz La classe des objets
+    * @param objs Les objets à encoder
+    * @return La valeur retournée par {@link CopySink#endCopy()}
+    */
+    public <T> long copyIn(CopySink sink, Class<T> clazz, Iterable<T> objs) throws Exception {
+        Iterator<T> it = objs.iterator();
+        return copyIn(sink, EntityMetadata.of(clazz), it.hasNext() ? it.next() : null, it);
+    }
+
+    private <T> long copyIn(CopySink sink, EntityMetadata meta, T premier, Iterator<T> it) throws Exception {
+        QueryEvent evenement = avant("copyIn", meta, meta.getSqlCopy(copyFormat), 0);
+        long lignes;
         try {
-            stmt = con.createStatement();
-            stmt.executeUpdate(query);
+            CopyEncoder encoder = new CopyEncoder(sink, copyFormat, meta.getColonnesInsert(), getMappingMode());
+            if (premier != null) {
+                encoder.ligne(premier);
+            }
+            while (it.hasNext()) {
+                T obj = it.next();
+                if (obj.getClass() != meta.getClasse()) {
+                    throw new IllegalArgumentException("Tous les objets doivent être de la classe " + meta.getClasse().getName() + " : " + obj);
+                }
+                encoder.ligne(obj);
+            }
+            lignes = encoder.fin();
+        } catch (Exception e) {
+            try {
+                sink.cancelCopy();
+            } catch (SQLException annulation) {
+                e.addSuppressed(annulation);
+            }
+            echec(evenement, e);
+            throw e;
         } finally {
-            if (stmt != null) {
-                stmt.close();
+            invaliderTable(meta);
+        }
+        apres(evenement, lignes);
+        return lignes;
+    }
+
+    /**
+     * Liaison des paramètres d'un objet avant son exécution ou son addBatch.
+     */
+    private interface Liaison<T> {
+        void lier(PreparedStatement stmt, T obj) throws Exception;
+    }
+
+    /**
+     * Exécute une requête d'écriture unitaire avec la requête préparée du cache.
+     *
+     * @return Le nombre de lignes modifiées
+     */
+    private <T> int executerUnitaire(Connection con, String operation, EntityMetadata meta, String sql, int parametres,
+            T obj, Liaison<T> liaison) throws Exception {
+        return executerUnitaire(con, operation, meta, sql, parametres, obj, liaison, null, null);
+    }
+
+    /**
+     * @param cle La colonne générée à relire, ou null
+     * @param cibles Les objets qui reçoivent les valeurs générées, dans l'ordre des lignes
+     */
+    private <T> int executerUnitaire(Connection con, String operation, EntityMetadata meta, String sql, int parametres,
+            T obj, Liaison<T> liaison, ColumnMetadata cle, List<?> cibles) throws Exception {
+        QueryEvent evenement = avant(operation, meta, sql, parametres);
+        int lignes;
+        try {
+            PreparedStatement stmt = cle == null ? statementCache.prepare(con, sql)
+                    : statementCache.prepare(con, sql, colonnesGenerees(con, cle));
+            try {
+                liaison.lier(stmt, obj);
+                Annulation.surveiller(stmt);
+                lignes = stmt.executeUpdate();
+                if (cle != null) {
+                    relireCles(stmt, cle, cibles, 0, cibles.size());
+                }
+            } finally {
+                Annulation.liberer();
+                statementCache.release(stmt);
+                invaliderTable(meta);
             }
+        } catch (Exception e) {
+            echec(evenement, e);
+            throw e;
         }
+        apres(evenement, lignes);
+        return lignes;
     }
-    
-    private String getValueString(Object value) {
-        if (value instanceof String) {
-            return "'" + value + "'";
-        } else if (value instanceof Number) {
-            return value.toString();
-        } else if (value instanceof Date) {
-            return "'" + new SimpleDateFormat("yyyy-MM-dd").format((Date) value) + "'";
-        } else {
-            return value.toString();
-        }
-    }
- 
+
+    private <T> void executerParLots(Connection con, String operation, EntityMetadata meta, String sql, int parametres,
+            List<T> objs, BatchResult resultat, Liaison<T> liaison) throws Exception {
+        executerParLots(con, operation, meta, sql, parametres, objs, resultat, liaison, null);
+    }
+
+    /**
+     * @param cle La colonne générée à relire dans chaque objet après son lot, ou null
+     */
+    private <T> void executerParLots(Connection con, String operation, EntityMetadata meta, String sql, int parametres,
+            List<T> objs, BatchResult resultat, Liaison<T> liaison, ColumnMetadata cle) throws Exception {
+        QueryEvent evenement = avant(operation, meta, sql, parametres);
+        PreparedStatement stmt;
+        try {
+            stmt = cle == null ? statementCache.prepare(con, sql) : statementCache.prepare(con, sql, colonnesGenerees(con, cle));
+        } catch (Exception e) {
+            echec(evenement, e);
+            throw e;
+        }
+        try {
+            Annulation.surveiller(stmt);
+            int dansLot = 0;
+            int position = 0;
+            for (T obj : objs) {
+                liaison.lier(stmt, obj);
+                stmt.addBatch();
+                position++;
+                if (++dansLot == batchSize) {
+                    resultat.ajouter(stmt.executeBatch(), dansLot);
+                    if (cle != null) {
+                        relireCles(stmt, cle, objs, position - dansLot, dansLot);
+                    }
+                    dansLot = 0;
+                }
+            }
+            if (dansLot > 0) {
+                resultat.ajouter(stmt.executeBatch(), dansLot);
+                if (cle != null) {
+                    relireCles(stmt, cle, objs, position - dansLot, dansLot);
+                }
+            }
+        } catch (Exception e) {
+            // La requête reste dans le cache : on ne doit pas y laisser un lot partiel
+            stmt.clearBatch();
+            echec(evenement, e);
+            throw e;
+        } finally {
+            Annulation.liberer();
+            statementCache.release(stmt);
+            // Même en cas d'erreur : une partie des lots a pu être écrite
+            for (T obj : objs) {
+                invalider(meta, obj);
+            }
+            invaliderTable(meta);
+        }
+        apres(evenement, resultat.getTotalUpdateCount());
+    }
+
+    /**
+     * @return La clé primaire à relire après un insert, ou null si la
+     *         relecture est désactivée ou que le champ n'est pas modifiable
+     */
+    private ColumnMetadata cleGeneree(EntityMetadata meta) {
+        ColumnMetadata pk = meta.getPrimaryKey();
+        if (!generatedKeys || pk == null || pk.isStatic() || pk.isFinal()) {
+            return null;
+        }
+        return pk;
+    }
+
+    /**
+     * Nom de la clé à relire tel que la base l'a enregistré. Le nom n'est pas
+     * quoté dans le SQL généré, la base le replie donc (en minuscules pour
+     * PostgreSQL), alors que le pilote quote le nom passé à
+     * {@code prepareStatement} : il faut le replier de la même façon.
+     */
+    private static String[] colonnesGenerees(Connection con, ColumnMetadata cle) throws SQLException {
+        String nom = cle.getNom();
+        if (nom.length() > 1 && nom.startsWith("\"") && nom.endsWith("\"")) {
+            return new String[]{nom.substring(1, nom.length() - 1).replace("\"\"", "\"")};
+        }
+        DatabaseMetaData md = con.getMetaData();
+        if (md.storesLowerCaseIdentifiers()) {
+            nom = nom.toLowerCase(Locale.ROOT);
+        } else if (md.storesUpperCaseIdentifiers()) {
+            nom = nom.toUpperCase(Locale.ROOT);
+        }
+        return new String[]{nom};
+    }
+
+    /**
+     * Écrit les valeurs générées de la dernière exécution dans les objets
+     * {@code debut} à {@code debut + nombre - 1} de {@code cibles}.
+     */
+    private void relireCles(PreparedStatement stmt, ColumnMetadata cle, List<?> cibles, int debut, int nombre) throws Exception {
+        ColumnAccessor accesseur = cle.getAccesseur(getMappingMode());
+        try (ResultSet rs = stmt.getGeneratedKeys()) {
+            ColumnReader lecteur = cle.lecteur(rs.getMetaData().getColumnType(1));
+            for (int i = debut; i < debut + nombre && rs.next(); i++) {
+                lecteur.lire(rs, 1, cibles.get(i), accesseur);
+            }
+        }
+    }
+
+    /**
+     * Retire du cache de findById l'entité de même clé que {@code obj}.
+     */
+    private void invalider(EntityMetadata meta, Object obj) throws Exception {
+        EntityCache cache = getEntityCache();
+        ColumnMetadata primaryKey = meta.getPrimaryKey();
+        if (cache != null && primaryKey != null) {
+            cache.invalidate(meta, primaryKey.getAccesseur(getMappingMode()).get(obj));
+        }
+    }
+
+    /**
+     * Retire du cache de findByCriteria/findMulticriteria les résultats de la table.
+     */
+    private void invaliderTable(EntityMetadata meta) {
+        QueryCache cache = getQueryCache();
+        if (cache != null) {
+            cache.invalidate(meta.getNomTable());
+        }
+    }
+
+    /**
+     * Métadonnées communes d'une liste d'objets, qui doivent tous être de la même classe.
+     */
+    private static EntityMetadata metadata(List<?> objs) {
+        Class<?> clazz = objs.get(0).getClass();
+        for (Object obj : objs) {
+            if (obj.getClass() != clazz) {
+                throw new IllegalArgumentException("Tous les objets doivent être de la classe " + clazz.getName() + " : " + obj);
+            }
+        }
+        return EntityMetadata.of(clazz);
+    }
+
+    /**
+     * Lie les valeurs des colonnes de {@code obj} aux paramètres de la requête
+     * à partir de l'index {@code debut}.
+     *
+     * @return L'index du paramètre suivant
+     */
+    private int lier(PreparedStatement stmt, int debut, List<ColumnMetadata> colonnes, Object obj) throws Exception {
+        MappingMode mode = getMappingMode();
+        int index = debut;
+        for (ColumnMetadata colonne : colonnes) {
+            colonne.lier(stmt, index++, obj, colonne.getAccesseur(mode));
+        }
+        return index;
+    }
+
 }
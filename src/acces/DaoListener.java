@@ -0,0 +1,59 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+/**
+ * Point d'écoute des requêtes exécutées par {@link DAORead} et {@link DAO_CUD}
+ * (traces, métriques). Les méthodes sont appelées dans le thread de la
+ * requête et doivent donc rester rapides.
+ *
+ * Par défaut le DAO utilise {@link #NOOP} : aucun événement n'est créé et
+ * aucune mesure de temps n'est prise.
+ *
+ * @see DaoMetrics
+ */
+public interface DaoListener {
+
+    /**
+     * Écouteur sans effet, utilisé par défaut.
+     */
+    DaoListener NOOP = new DaoListener() {
+    };
+
+    /**
+     * Appelé juste avant l'exécution de la requête.
+     */
+    default void beforeQuery(QueryEvent event) {
+    }
+
+    /**
+     * Appelé une fois la requête terminée (pour une lecture, après la
+     * création du dernier objet), y compris en cas d'erreur.
+     */
+    default void afterQuery(QueryEvent event) {
+    }
+
+    /**
+     * @return Un écouteur qui relaie les événements à chacun, dans l'ordre
+     */
+    static DaoListener of(DaoListener... listeners) {
+        DaoListener[] copie = listeners.clone();
+        return new DaoListener() {
+            @Override
+            public void beforeQuery(QueryEvent event) {
+                for (DaoListener listener : copie) {
+                    listener.beforeQuery(event);
+                }
+            }
+
+            @Override
+            public void afterQuery(QueryEvent event) {
+                for (DaoListener listener : copie) {
+                    listener.afterQuery(event);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Écouteur qui compte les requêtes et cumule leurs durées par méthode du DAO
+ * et par table. Les compteurs sont sans verrou et peuvent être lus pendant
+ * que les requêtes tournent.
+ *
+ * ```java
+ * DaoMetrics metrics = new DaoMetrics();
+ * dao.setListener(metrics);
+ * ...
+ * System.out.println(metrics);
+ * ```
+ */
+public final class DaoMetrics implements DaoListener {
+
+    private final ConcurrentHashMap<String, Stats> parOperation = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Stats> parTable = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterQuery(QueryEvent event) {
+        parOperation.computeIfAbsent(event.getOperation(), k -> new Stats()).ajouter(event);
+        parTable.computeIfAbsent(event.getTable(), k -> new Stats()).ajouter(event);
+    }
+
+    /**
+     * @return Les statistiques de chaque méthode du DAO, par nom de méthode
+     */
+    public Map<String, Stats> getOperations() {
+        return Collections.unmodifiableMap(parOperation);
+    }
+
+    /**
+     * @return Les statistiques de chaque table, par nom de table
+     */
+    public Map<String, Stats> getTables() {
+        return Collections.unmodifiableMap(parTable);
+    }
+
+    /**
+     * @return Les statistiques d'une méthode, ou null si elle n'a pas été appelée
+     */
+    public Stats getOperation(String operation) {
+        return parOperation.get(operation);
+    }
+
+    /**
+     * @return Les statistiques d'une table, ou null si elle n'a pas été lue ni écrite
+     */
+    public Stats getTable(String table) {
+        return parTable.get(table);
+    }
+
+    /**
+     * Remet tous les compteurs à zéro.
+     */
+    public void reset() {
+        parOperation.clear();
+        parTable.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("DaoMetrics");
+        for (Map.Entry<String, Stats> e : new TreeMap<>(parOperation).entrySet()) {
+            sb.append("\n  ").append(e.getKey()).append(" : ").append(e.getValue());
+        }
+        for (Map.Entry<String, Stats> e : new TreeMap<>(parTable).entrySet()) {
+            sb.append("\n  [").append(e.getKey()).append("] : ").append(e.getValue());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Compteurs et durées cumulées d'une méthode ou d'une table.
+     */
+    public static final class Stats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder executionNanos = new LongAdder();
+        private final LongAdder hydrationNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void ajouter(QueryEvent event) {
+            count.increment();
+            if (event.getError() != null) {
+                errors.increment();
+            }
+            rows.add(event.getRowCount());
+            executionNanos.add(event.getExecutionNanos());
+            hydrationNanos.add(event.getHydrationNanos());
+            long total = event.getExecutionNanos() + event.getHydrationNanos();
+            if (total > maxNanos.get()) {
+                maxNanos.accumulateAndGet(total, Math::max);
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getExecutionNanos() {
+            return executionNanos.sum();
+        }
+
+        public long getHydrationNanos() {
+            return hydrationNanos.sum();
+        }
+
+        /**
+         * @return La plus longue requête (exécution et hydratation)
+         */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * @return La durée moyenne d'une requête (exécution et hydratation)
+         */
+        public long getMeanNanos() {
+            long n = getCount();
+            return n == 0 ? 0 : (getExecutionNanos() + getHydrationNanos()) / n;
+        }
+
+        @Override
+        public String toString() {
+            return getCount() + " requêtes, " + getErrors() + " erreurs, " + getRows() + " lignes, exécution "
+                    + getExecutionNanos() / 1000 + " µs, hydratation " + getHydrationNanos() / 1000 + " µs, moyenne "
+                    + getMeanNanos() / 1000 + " µs, max " + getMaxNanos() / 1000 + " µs";
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+/**
+ * Liaison d'une classe {@code @Table} générée à la compilation par le
+ * processeur d'annotations du module {@code processor} : constructeur,
+ * accesseurs appelant directement les getters et setters, et SQL
+ * précalculé. La classe générée {@code <Classe>_Dao} est placée dans le
+ * package de la classe mappée ; {@link EntityMetadata} la trouve par son
+ * nom et s'en sert en {@link MappingMode#GENERATED} à la place des
+ * accesseurs construits par {@code LambdaMetafactory}.
+ *
+ * Le SQL de la classe est toujours calculé par réflexion : une liaison dont
+ * les colonnes ou le SQL ne correspondent plus à la classe (code généré
+ * périmé) est ignorée.
+ *
+ * @param <T> La classe mappée
+ */
+public interface EntityBinding<T> {
+
+    /**
+     * Suffixe du nom de la classe générée.
+     */
+    String SUFFIXE = "_Dao";
+
+    Class<T> getClasse();
+
+    String getNomTable();
+
+    /**
+     * @return Les noms des colonnes lues, dans l'ordre de déclaration des champs
+     */
+    String[] getColonnes();
+
+    T newInstance();
+
+    /**
+     * @param champ Le nom du champ Java
+     * @return L'accesseur du champ, ou null si la classe n'a pas ses getter et setter
+     */
+    ColumnAccessor getAccesseur(String champ);
+
+    String getSqlInsert();
+
+    /**
+     * @return L'UPDATE complet, ou null sans clé primaire
+     */
+    String getSqlUpdate();
+
+    /**
+     * @return Le DELETE par clé primaire, ou null sans clé primaire
+     */
+    String getSqlDelete();
+
+    /**
+     * @return Le SELECT par clé primaire, ou null sans clé primaire
+     */
+    String getSqlSelectById();
+}
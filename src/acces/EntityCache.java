@@ -0,0 +1,306 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache des entités lues par {@link DAORead#findById}, indexé par table et
+ * clé primaire. Il est découpé en segments LRU indépendants (un verrou par
+ * segment) et borné en nombre d'entrées, avec une durée de vie optionnelle.
+ *
+ * Le cache garde et rend des copies superficielles : l'objet retourné peut
+ * être modifié par l'appelant sans altérer le cache. Les écritures de
+ * {@link DAO_CUD} sur une clé l'invalident ; une lecture commencée avant
+ * l'invalidation n'est pas mise en cache. Une écriture faite dans une
+ * transaction invalide la clé avant le commit : une autre connexion peut
+ * encore remettre l'ancienne ligne en cache d'ici là, d'où la durée de vie ou
+ * un {@link #invalidate} après le commit pour les données très disputées.
+ */
+public final class EntityCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final int capacite;
+    private final long ttlNanos;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param capacite Nombre maximum d'entités gardées, sans durée de vie
+     */
+    public EntityCache(int capacite) {
+        this(capacite, 0, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param capacite Nombre maximum d'entités gardées
+     * @param ttl Durée de vie d'une entrée (0 pour ne jamais expirer)
+     * @param unite L'unité de {@code ttl}
+     */
+    public EntityCache(int capacite, long ttl, TimeUnit unite) {
+        if (capacite < 1) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacite);
+        }
+        if (ttl < 0) {
+            throw new IllegalArgumentException("Durée de vie négative : " + ttl);
+        }
+        this.capacite = capacite;
+        this.ttlNanos = unite.toNanos(ttl);
+        int nombre = Math.min(SEGMENTS, capacite);
+        this.segments = new Segment[nombre];
+        for (int i = 0; i < nombre; i++) {
+            // Répartit la capacité sans la dépasser au total
+            segments[i] = new Segment(capacite / nombre + (i < capacite % nombre ? 1 : 0));
+        }
+    }
+
+    public int getCapacite() {
+        return capacite;
+    }
+
+    /**
+     * @return Une copie de l'entité en cache, ou null si elle est absente ou expirée
+     */
+    <T> T get(EntityMetadata meta, Object pk, MappingMode mode) throws Exception {
+        Cle cle = new Cle(meta.getNomTable(), pk);
+        Object entite = segment(cle).get(cle);
+        // Deux classes peuvent être mappées sur la même table
+        if (entite == null || entite.getClass() != meta.getClasse()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        @SuppressWarnings("unchecked")
+        T copie = meta.copier((T) entite, mode);
+        return copie;
+    }
+
+    /**
+     * @return Le compteur d'invalidations du segment de la clé, à repasser à
+     *         {@link #put} une fois l'entité lue en base
+     */
+    long generation(EntityMetadata meta, Object pk) {
+        Segment segment = segment(new Cle(meta.getNomTable(), pk));
+        synchronized (segment) {
+            return segment.generation;
+        }
+    }
+
+    /**
+     * Met en cache une copie de l'entité lue, sauf si le segment a été
+     * invalidé depuis {@code generation} (la lecture est peut-être périmée).
+     */
+    void put(EntityMetadata meta, Object pk, Object entite, long generation, MappingMode mode) throws Exception {
+        Object copie = meta.copier(entite, mode);
+        Cle cle = new Cle(meta.getNomTable(), pk);
+        Segment segment = segment(cle);
+        synchronized (segment) {
+            if (segment.generation == generation) {
+                segment.entrees.put(cle, new Entree(copie, ttlNanos == 0 ? 0 : System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    /**
+     * Oublie l'entité d'une clé primaire.
+     */
+    public void invalidate(Class<?> classe, Object pk) {
+        invalidate(EntityMetadata.of(classe), pk);
+    }
+
+    void invalidate(EntityMetadata meta, Object pk) {
+        if (pk == null) {
+            return;
+        }
+        Cle cle = new Cle(meta.getNomTable(), pk);
+        Segment segment = segment(cle);
+        synchronized (segment) {
+            segment.generation++;
+            segment.entrees.remove(cle);
+        }
+    }
+
+    /**
+     * Oublie toutes les entités d'une table.
+     */
+    public void invalidateAll(Class<?> classe) {
+        String table = EntityMetadata.of(classe).getNomTable();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.generation++;
+                segment.entrees.keySet().removeIf(cle -> cle.table.equals(table));
+            }
+        }
+    }
+
+    /**
+     * Vide le cache.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.generation++;
+                segment.entrees.clear();
+            }
+        }
+    }
+
+    /**
+     * @return Le nombre d'entités en cache (entrées expirées comprises tant
+     *         qu'elles n'ont pas été relues)
+     */
+    public int size() {
+        int taille = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                taille += segment.entrees.size();
+            }
+        }
+        return taille;
+    }
+
+    private Segment segment(Cle cle) {
+        int h = cle.hashCode();
+        return segments[Math.floorMod(h ^ (h >>> 16), segments.length)];
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Les entrées retirées pour faire de la place (LRU)
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Les entrées retirées parce que leur durée de vie était écoulée
+     */
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache[capacite=" + capacite + ", taille=" + size() + ", hits=" + getHits() + ", misses=" + getMisses()
+                + ", evictions=" + getEvictions() + ", expirations=" + getExpirations() + "]";
+    }
+
+    /**
+     * Ramène les clés entières à un Long, pour qu'une clé int et une clé long
+     * de même valeur désignent la même ligne.
+     */
+    static Object normaliser(Object pk) {
+        return pk instanceof Integer || pk instanceof Short || pk instanceof Byte ? (Object) ((Number) pk).longValue() : pk;
+    }
+
+    /**
+     * Clé d'une entité : la table et la clé primaire. Les entiers sont
+     * ramenés à un Long pour qu'un {@code int} et un {@code Long} désignent
+     * la même ligne.
+     */
+    private static final class Cle {
+
+        private final String table;
+        private final Object pk;
+
+        Cle(String table, Object pk) {
+            this.table = table;
+            this.pk = normaliser(pk);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Cle)) {
+                return false;
+            }
+            Cle autre = (Cle) o;
+            return table.equals(autre.table) && pk.equals(autre.pk);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(table, pk);
+        }
+    }
+
+    private static final class Entree {
+
+        private final Object entite;
+        private final long expiration;
+
+        Entree(Object entite, long expiration) {
+            this.entite = entite;
+            this.expiration = expiration;
+        }
+    }
+
+    /**
+     * Un segment : ses entrées de la moins récemment utilisée à la plus
+     * récente, et un compteur d'invalidations.
+     */
+    private final class Segment {
+
+        private final LinkedHashMap<Cle, Entree> entrees;
+        private long generation;
+
+        Segment(int taille) {
+            this.entrees = new LinkedHashMap<Cle, Entree>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Cle, Entree> eldest) {
+                    if (size() <= taille) {
+                        return false;
+                    }
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        synchronized Object get(Cle cle) {
+            Entree entree = entrees.get(cle);
+            if (entree == null) {
+                return null;
+            }
+            if (entree.expiration != 0 && entree.expiration - System.nanoTime() <= 0) {
+                expirations.increment();
+                entrees.remove(cle);
+                purger();
+                return null;
+            }
+            return entree.entite;
+        }
+
+        /**
+         * Retire les autres entrées expirées (appelé quand une expiration est constatée).
+         */
+        private void purger() {
+            long maintenant = System.nanoTime();
+            Iterator<Entree> it = entrees.values().iterator();
+            while (it.hasNext()) {
+                Entree entree = it.next();
+                if (entree.expiration - maintenant <= 0) {
+                    expirations.increment();
+                    it.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Mapper d'une classe compilé une seule fois : colonnes, accesseurs et
+ * constructeur sont résolus à la construction. Pour chaque résultat,
+ * {@link #plan(ResultSetMetaData, boolean)} associe une fois chaque champ à
+ * l'index de sa colonne et à sa lecture ({@link ConverterRegistry}, selon le
+ * type JDBC de la colonne) ; la boucle par ligne n'est plus qu'un appel par
+ * cellule (getInt, getLong, getDouble, getTimestamp...).
+ *
+ * @param <T> Le type mappé
+ */
+final class EntityMapper<T> {
+
+    private final EntityMetadata meta;
+    private final Supplier<Object> instantiator;
+    private final ColumnMetadata[] colonnes;
+    private final ColumnAccessor[] accesseurs;
+
+    EntityMapper(EntityMetadata meta, MappingMode mode) throws NoSuchMethodException {
+        this.meta = meta;
+        EntityBinding<?> binding = meta.getBinding();
+        if (mode != MappingMode.GENERATED) {
+            this.instantiator = null;
+        } else if (binding != null) {
+            this.instantiator = binding::newInstance;
+        } else {
+            this.instantiator = GeneratedAccessor.instantiator(meta.getClasse());
+        }
+        List<ColumnMetadata> liste = meta.getColonnes();
+        this.colonnes = liste.toArray(new ColumnMetadata[0]);
+        this.accesseurs = new ColumnAccessor[colonnes.length];
+        for (int i = 0; i < colonnes.length; i++) {
+            accesseurs[i] = colonnes[i].getAccesseur(mode);
+        }
+    }
+
+    /**
+     * Résout l'index de chaque colonne mappée dans le résultat.
+     *
+     * @param md Les métadonnées du résultat
+     * @param partiel Si vrai, une colonne absente du résultat n'est pas lue
+     *        (projection) ; sinon seules les colonnes {@code @Lazy} peuvent manquer
+     * @return Le mapper de lignes pour ce résultat
+     * @throws SQLException Si une colonne mappée obligatoire est absente du résultat
+     */
+    RowMapper<T> plan(ResultSetMetaData md, boolean partiel) throws SQLException {
+        int count = md.getColumnCount();
+        String[] labels = new String[count];
+        for (int i = 0; i < count; i++) {
+            labels[i] = md.getColumnLabel(i + 1);
+        }
+        int[] index = new int[colonnes.length];
+        int presentes = 0;
+        BitSet lazyAbsentes = null;
+        for (int i = 0; i < colonnes.length; i++) {
+            index[i] = indexOf(labels, colonnes[i].getNom());
+            if (index[i] != 0) {
+                presentes++;
+            } else if (colonnes[i].isLazy()) {
+                int update = meta.getColonnesUpdate().indexOf(colonnes[i]);
+                if (update >= 0) {
+                    if (lazyAbsentes == null) {
+                        lazyAbsentes = new BitSet();
+                    }
+                    lazyAbsentes.set(update);
+                }
+            } else if (!partiel) {
+                throw new SQLException("Colonne \"" + colonnes[i].getNom() + "\" introuvable dans le résultat pour "
+                        + meta.getClasse().getName() + "." + colonnes[i].getField().getName());
+            }
+        }
+        // Seules les colonnes présentes sont parcourues pour chaque ligne
+        ColumnReader[] lecteurs = new ColumnReader[presentes];
+        ColumnAccessor[] accesseursLus = new ColumnAccessor[presentes];
+        int[] indexLus = new int[presentes];
+        for (int i = 0, j = 0; i < colonnes.length; i++) {
+            if (index[i] != 0) {
+                lecteurs[j] = colonnes[i].lecteur(md.getColumnType(index[i]));
+                accesseursLus[j] = accesseurs[i];
+                indexLus[j++] = index[i];
+            }
+        }
+        if (lazyAbsentes == null) {
+            return rs -> map(rs, indexLus, lecteurs, accesseursLus);
+        }
+        // Un UPDATE de ces objets ne doit pas effacer les colonnes @Lazy non lues
+        BitSet nonChargees = lazyAbsentes;
+        return rs -> {
+            T instance = map(rs, indexLus, lecteurs, accesseursLus);
+            meta.nonChargees(instance, nonChargees);
+            return instance;
+        };
+    }
+
+    private static int indexOf(String[] labels, String nom) {
+        // Même règle que ResultSet.findColumn : casse exacte d'abord, puis insensible
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equals(nom)) {
+                return i + 1;
+            }
+        }
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase(nom)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T map(ResultSet rs, int[] index, ColumnReader[] lecteurs, ColumnAccessor[] accesseurs) throws Exception {
+        T instance = instantiator != null ? (T) instantiator.get() : meta.newInstance();
+        for (int i = 0; i < lecteurs.length; i++) {
+            lecteurs[i].lire(rs, index[i], instance, accesseurs[i]);
+        }
+        return instance;
+    }
+}
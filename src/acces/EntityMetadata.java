@@ -0,0 +1,598 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import annotation.Cacheable;
+import annotation.Table;
+import java.lang.reflect.Field;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Métadonnées d'une classe mappée (table, clé primaire, colonnes, accesseurs).
+ * Elles sont calculées une seule fois par classe puis partagées entre tous les
+ * appels de {@link DAORead} et {@link DAO_CUD}, quel que soit le thread.
+ */
+public final class EntityMetadata {
+
+    private static final ConcurrentHashMap<Class<?>, EntityMetadata> REGISTRE = new ConcurrentHashMap<>();
+
+    private final Class<?> classe;
+    private final String nomTable;
+    private final boolean cacheable;
+    private final ColumnMetadata primaryKey;
+    private final List<ColumnMetadata> colonnes;
+    private final List<ColumnMetadata> colonnesEcriture;
+    private final List<ColumnMetadata> colonnesInsert;
+    private final List<ColumnMetadata> colonnesUpdate;
+    private final List<ColumnMetadata> colonnesUpsert;
+    private final List<ColumnMetadata> colonnesLazy;
+    // Colonnes @Lazy non chargées des objets lus, qu'un UPDATE ne doit pas effacer
+    private final Snapshots<BitSet> lazyNonChargees = new Snapshots<>();
+    private final String sqlInsert;
+    private final String sqlUpdate;
+    private final String sqlDelete;
+    private final String sqlSelect;
+    private final String sqlSelectById;
+    private final String sqlUpsert;
+    private final String sqlCopy;
+    private final EntityBinding<?> binding;
+    private final ConcurrentHashMap<Integer, String> sqlInsertMultiple = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<BitSet, String> sqlUpdatePartiel = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<BitSet, String> conditionsCriteres = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<BitSet, String> sqlCriteres = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<BitSet, String> sqlCriteresPagines = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<BitSet, String> sqlMulticriteres = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<EntityMapper<?>> mappers = new AtomicReferenceArray<>(MappingMode.values().length);
+
+    private EntityMetadata(Class<?> clazz) {
+        this.classe = clazz;
+        Table tableAnnotation = clazz.getAnnotation(Table.class);
+        this.nomTable = tableAnnotation != null ? tableAnnotation.nom() : clazz.getSimpleName().toLowerCase();
+        this.cacheable = clazz.isAnnotationPresent(Cacheable.class);
+
+        List<ColumnMetadata> lecture = new ArrayList<>();
+        List<ColumnMetadata> ecriture = new ArrayList<>();
+        ColumnMetadata pk = null;
+        for (Field field : clazz.getDeclaredFields()) {
+            ColumnMetadata colonne = new ColumnMetadata(clazz, field);
+            if (pk == null && colonne.isPrimaryKey()) {
+                pk = colonne;
+            }
+            if (colonne.isStatic()) {
+                continue;
+            }
+            lecture.add(colonne);
+            if (!colonne.isFinal()) {
+                ecriture.add(colonne);
+            }
+        }
+        this.primaryKey = pk;
+        this.colonnes = Collections.unmodifiableList(lecture);
+
+        // Lecture : les colonnes mappées seulement, hors @Lazy
+        List<ColumnMetadata> lazy = new ArrayList<>();
+        StringBuilder selection = new StringBuilder();
+        for (ColumnMetadata colonne : lecture) {
+            if (colonne.isLazy()) {
+                lazy.add(colonne);
+            } else {
+                selection.append(selection.length() > 0 ? ", " : "").append(colonne.getNom());
+            }
+        }
+        this.colonnesLazy = Collections.unmodifiableList(lazy);
+        this.sqlSelect = "SELECT " + (selection.length() > 0 ? selection : "*") + " FROM " + nomTable;
+        this.colonnesEcriture = Collections.unmodifiableList(ecriture);
+
+        // Requêtes d'écriture : une seule par classe, la clé primaire en WHERE
+        List<ColumnMetadata> sansPk = new ArrayList<>();
+        for (ColumnMetadata colonne : ecriture) {
+            if (!colonne.isPrimaryKey()) {
+                sansPk.add(colonne);
+            }
+        }
+        this.colonnesInsert = Collections.unmodifiableList(sansPk);
+        this.colonnesUpdate = colonnesInsert;
+        StringBuilder noms = new StringBuilder();
+        StringBuilder params = new StringBuilder();
+        StringBuilder set = new StringBuilder();
+        for (ColumnMetadata colonne : sansPk) {
+            if (noms.length() > 0) {
+                noms.append(", ");
+                params.append(", ");
+                set.append(", ");
+            }
+            noms.append(colonne.getNom());
+            params.append('?');
+            set.append(colonne.getNom()).append(" = ?");
+        }
+        this.sqlInsert = "INSERT INTO " + nomTable + " (" + noms + ") VALUES (" + params + ")";
+        this.sqlUpdate = pk == null ? null : "UPDATE " + nomTable + " SET " + set + " WHERE " + pk.getNom() + " = ?";
+        this.sqlDelete = pk == null ? null : "DELETE FROM " + nomTable + " WHERE " + pk.getNom() + " = ?";
+        this.sqlSelectById = pk == null ? null : sqlSelect + " WHERE " + pk.getNom() + " = ?";
+        this.binding = lier(lecture);
+        this.sqlCopy = "COPY " + nomTable + " (" + noms + ") FROM STDIN";
+
+        // Upsert : la clé primaire est écrite, les autres colonnes mises à jour en cas de conflit
+        if (pk == null) {
+            this.colonnesUpsert = null;
+            this.sqlUpsert = null;
+        } else {
+            List<ColumnMetadata> upsert = new ArrayList<>();
+            upsert.add(pk);
+            upsert.addAll(sansPk);
+            this.colonnesUpsert = Collections.unmodifiableList(upsert);
+            StringBuilder misesAJour = new StringBuilder();
+            for (ColumnMetadata colonne : sansPk) {
+                misesAJour.append(misesAJour.length() > 0 ? ", " : "").append(colonne.getNom())
+                        .append(" = EXCLUDED.").append(colonne.getNom());
+            }
+            this.sqlUpsert = "INSERT INTO " + nomTable + " (" + pk.getNom() + (sansPk.isEmpty() ? "" : ", " + noms)
+                    + ") VALUES (?" + (sansPk.isEmpty() ? "" : ", " + params) + ") ON CONFLICT (" + pk.getNom() + ") DO "
+                    + (sansPk.isEmpty() ? "NOTHING" : "UPDATE SET " + misesAJour);
+        }
+    }
+
+    /**
+     * Cherche la liaison générée à la compilation pour la classe et, si ses
+     * colonnes et son SQL sont bien ceux calculés pour la classe, donne ses
+     * accesseurs aux colonnes. Appelée une fois le SQL calculé.
+     *
+     * @return La liaison, ou null s'il n'y en a pas ou qu'elle est périmée
+     */
+    private EntityBinding<?> lier(List<ColumnMetadata> colonnes) {
+        EntityBinding<?> liaison;
+        try {
+            // Outer$Inner est généré en Outer_Inner_Dao
+            Class<?> generee = Class.forName(classe.getName().replace('$', '_') + EntityBinding.SUFFIXE, true,
+                    classe.getClassLoader());
+            if (!EntityBinding.class.isAssignableFrom(generee)) {
+                return null;
+            }
+            liaison = (EntityBinding<?>) generee.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+        String[] noms = liaison.getColonnes();
+        if (liaison.getClasse() != classe || !nomTable.equals(liaison.getNomTable()) || noms.length != colonnes.size()) {
+            return null;
+        }
+        // Une clé primaire, une colonne @Lazy ou finale modifiée change le SQL sans changer les colonnes
+        if (!sqlInsert.equals(liaison.getSqlInsert()) || !Objects.equals(sqlUpdate, liaison.getSqlUpdate())
+                || !Objects.equals(sqlDelete, liaison.getSqlDelete())
+                || !Objects.equals(sqlSelectById, liaison.getSqlSelectById())) {
+            return null;
+        }
+        for (int i = 0; i < noms.length; i++) {
+            if (!noms[i].equals(colonnes.get(i).getNom())) {
+                return null;
+            }
+        }
+        for (ColumnMetadata colonne : colonnes) {
+            ColumnAccessor accesseur = liaison.getAccesseur(colonne.getField().getName());
+            if (accesseur != null) {
+                colonne.setAccesseurCompile(accesseur);
+            }
+        }
+        return liaison;
+    }
+
+    /**
+     * Retourne les métadonnées d'une classe, calculées au premier appel.
+     *
+     * @param clazz La classe mappée
+     * @return Les métadonnées partagées de la classe
+     */
+    public static EntityMetadata of(Class<?> clazz) {
+        return REGISTRE.computeIfAbsent(clazz, EntityMetadata::new);
+    }
+
+    public Class<?> getClasse() {
+        return classe;
+    }
+
+    public String getNomTable() {
+        return nomTable;
+    }
+
+    /**
+     * @return La liaison générée à la compilation, ou null si la classe n'en a pas
+     */
+    EntityBinding<?> getBinding() {
+        return binding;
+    }
+
+    /**
+     * @return Vrai si la classe est annotée {@code @Cacheable}
+     */
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * @return La colonne annotée {@code @PrimaryKey}, ou null s'il n'y en a pas
+     */
+    public ColumnMetadata getPrimaryKey() {
+        return primaryKey;
+    }
+
+    /**
+     * @return Les colonnes non statiques, dans l'ordre de déclaration (lecture)
+     */
+    public List<ColumnMetadata> getColonnes() {
+        return colonnes;
+    }
+
+    /**
+     * @return Les colonnes annotées {@code @Lazy}
+     */
+    public List<ColumnMetadata> getColonnesLazy() {
+        return colonnesLazy;
+    }
+
+    /**
+     * @param nom Un nom de colonne ou de champ
+     * @return La colonne lue correspondante, ou null
+     */
+    public ColumnMetadata getColonne(String nom) {
+        for (ColumnMetadata colonne : colonnes) {
+            if (colonne.getNom().equalsIgnoreCase(nom) || colonne.getField().getName().equals(nom)) {
+                return colonne;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Les colonnes non statiques et non finales (écriture)
+     */
+    public List<ColumnMetadata> getColonnesEcriture() {
+        return colonnesEcriture;
+    }
+
+    /**
+     * @return Les colonnes écrites par un INSERT, dans l'ordre des paramètres
+     */
+    public List<ColumnMetadata> getColonnesInsert() {
+        return colonnesInsert;
+    }
+
+    /**
+     * @return Les colonnes du SET d'un UPDATE, dans l'ordre des paramètres
+     *         (la clé primaire est le dernier paramètre)
+     */
+    public List<ColumnMetadata> getColonnesUpdate() {
+        return colonnesUpdate;
+    }
+
+    /**
+     * @return {@code INSERT INTO table (c1, c2...) VALUES (?, ?...)} sans la clé primaire
+     */
+    public String getSqlInsert() {
+        return sqlInsert;
+    }
+
+    /**
+     * Retourne l'INSERT multi-lignes {@code VALUES (?, ?), (?, ?)...} pour
+     * {@code lignes} objets, construit une fois par nombre de lignes.
+     *
+     * @param lignes Le nombre de lignes insérées par la requête
+     * @return Le SQL de l'insertion
+     */
+    public String getSqlInsertMultiple(int lignes) {
+        if (lignes == 1) {
+            return sqlInsert;
+        }
+        return sqlInsertMultiple.computeIfAbsent(lignes, n -> {
+            String ligne = sqlInsert.substring(sqlInsert.lastIndexOf(" VALUES ") + 8);
+            StringBuilder sql = new StringBuilder(sqlInsert.length() + (ligne.length() + 2) * n);
+            sql.append(sqlInsert);
+            for (int i = 1; i < n; i++) {
+                sql.append(", ").append(ligne);
+            }
+            return sql.toString();
+        });
+    }
+
+    /**
+     * @return {@code UPDATE table SET c1 = ?, ... WHERE pk = ?}, ou null sans clé primaire
+     */
+    public String getSqlUpdate() {
+        return sqlUpdate;
+    }
+
+    /**
+     * Retourne l'UPDATE limité à certaines colonnes, construit une fois par
+     * ensemble de colonnes.
+     *
+     * @param modifiees Les index, dans {@link #getColonnesUpdate()}, des colonnes du SET
+     * @return {@code UPDATE table SET ci = ?, cj = ? WHERE pk = ?}, ou null sans clé primaire
+     */
+    public String getSqlUpdate(BitSet modifiees) {
+        if (sqlUpdate == null || modifiees.cardinality() == colonnesUpdate.size()) {
+            return sqlUpdate;
+        }
+        String sql = sqlUpdatePartiel.get(modifiees);
+        if (sql == null) {
+            StringBuilder set = new StringBuilder();
+            for (int i = modifiees.nextSetBit(0); i >= 0; i = modifiees.nextSetBit(i + 1)) {
+                if (set.length() > 0) {
+                    set.append(", ");
+                }
+                set.append(colonnesUpdate.get(i).getNom()).append(" = ?");
+            }
+            sql = "UPDATE " + nomTable + " SET " + set + " WHERE " + primaryKey.getNom() + " = ?";
+            // La clé est copiée : l'appelant peut réutiliser son BitSet
+            sqlUpdatePartiel.putIfAbsent((BitSet) modifiees.clone(), sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Condition de findByCriteria, construite une fois par ensemble de champs
+     * renseignés : un {@code colonne = ?} par champ, reliés par OR.
+     *
+     * @param renseignes Les index, dans {@link #getColonnes()}, des champs non nuls
+     * @return La condition sans le WHERE, vide si aucun champ n'est renseigné
+     */
+    public String getConditionCriteres(BitSet renseignes) {
+        return gabarit(conditionsCriteres, renseignes, champs -> {
+            StringBuilder condition = new StringBuilder();
+            for (int i = champs.nextSetBit(0); i >= 0; i = champs.nextSetBit(i + 1)) {
+                if (condition.length() > 0) {
+                    condition.append(" OR ");
+                }
+                condition.append(colonnes.get(i).getNom()).append(" = ?");
+            }
+            return condition.toString();
+        });
+    }
+
+    /**
+     * @param renseignes Les index, dans {@link #getColonnes()}, des champs non nuls
+     * @param pagine Si vrai, la requête se termine par {@code LIMIT ? OFFSET ?}
+     * @return Le SELECT de findByCriteria pour ces champs, toujours le même
+     *         texte pour que la requête préparée côté serveur soit réutilisée
+     */
+    public String getSqlCriteres(BitSet renseignes, boolean pagine) {
+        return gabarit(pagine ? sqlCriteresPagines : sqlCriteres, renseignes, champs -> {
+            String condition = getConditionCriteres(champs);
+            return sqlSelect + (condition.isEmpty() ? "" : " WHERE " + condition) + (pagine ? " LIMIT ? OFFSET ?" : "");
+        });
+    }
+
+    /**
+     * @param renseignes Les index, dans {@link #getColonnes()}, des champs comparés
+     * @return Le SELECT de findMulticriteria : {@code lower(c) LIKE ?} pour
+     *         une chaîne, {@code c = ?} sinon, reliés par AND
+     */
+    public String getSqlMulticriteres(BitSet renseignes) {
+        return gabarit(sqlMulticriteres, renseignes, champs -> {
+            StringBuilder sql = new StringBuilder(sqlSelect);
+            String lien = " WHERE ";
+            for (int i = champs.nextSetBit(0); i >= 0; i = champs.nextSetBit(i + 1)) {
+                ColumnMetadata colonne = colonnes.get(i);
+                sql.append(lien);
+                lien = " AND ";
+                if (colonne.getType() == String.class) {
+                    sql.append("lower(").append(colonne.getNom()).append(") LIKE ?");
+                } else {
+                    sql.append(colonne.getNom()).append(" = ?");
+                }
+            }
+            return sql.toString();
+        });
+    }
+
+    private static String gabarit(ConcurrentHashMap<BitSet, String> cache, BitSet champs, Function<BitSet, String> construire) {
+        String sql = cache.get(champs);
+        if (sql == null) {
+            sql = construire.apply(champs);
+            // La clé est copiée : l'appelant peut réutiliser son BitSet
+            cache.putIfAbsent((BitSet) champs.clone(), sql);
+        }
+        return sql;
+    }
+
+    /**
+     * @return Les colonnes d'un upsert, dans l'ordre des paramètres : la clé
+     *         primaire puis celles de l'INSERT ; null sans clé primaire
+     */
+    public List<ColumnMetadata> getColonnesUpsert() {
+        return colonnesUpsert;
+    }
+
+    /**
+     * @return {@code INSERT INTO table (pk, c1...) VALUES (?, ?...) ON CONFLICT (pk)
+     *         DO UPDATE SET c1 = EXCLUDED.c1...}, ou null sans clé primaire
+     */
+    public String getSqlUpsert() {
+        return sqlUpsert;
+    }
+
+    /**
+     * @return {@code DELETE FROM table WHERE pk = ?}, ou null sans clé primaire
+     */
+    public String getSqlDelete() {
+        return sqlDelete;
+    }
+
+    /**
+     * @return {@code SELECT c1, c2... FROM table} : les colonnes mappées, hors {@code @Lazy}
+     */
+    public String getSqlSelect() {
+        return sqlSelect;
+    }
+
+    /**
+     * @return {@link #getSqlSelect()} suivi de {@code WHERE pk = ?}, ou null sans clé primaire
+     */
+    public String getSqlSelectById() {
+        return sqlSelectById;
+    }
+
+    /**
+     * @param format Le format des données
+     * @return {@code COPY table (c1, c2...) FROM STDIN}, mêmes colonnes que l'INSERT
+     */
+    public String getSqlCopy(CopyFormat format) {
+        return format == CopyFormat.BINARY ? sqlCopy + " WITH (FORMAT binary)" : sqlCopy;
+    }
+
+    /**
+     * Retourne le mapper de lignes de la classe pour un résultat donné.
+     * La partie liée à la classe est compilée au premier appel puis
+     * réutilisée ; seule la résolution des index de colonnes est refaite
+     * pour chaque résultat.
+     *
+     * @param mode Le moteur de mapping
+     * @param md Les métadonnées du résultat à lire
+     * @return Le mapper de lignes
+     * @throws SQLException Si une colonne mappée est absente du résultat
+     */
+    public <T> RowMapper<T> getMapper(MappingMode mode, ResultSetMetaData md) throws SQLException, NoSuchMethodException {
+        return getMapper(mode, md, false);
+    }
+
+    /**
+     * @param partiel Si vrai, les colonnes absentes du résultat sont laissées
+     *        à leur valeur par défaut (projection) au lieu de lever une erreur ;
+     *        les colonnes {@code @Lazy} peuvent toujours être absentes
+     */
+    @SuppressWarnings("unchecked")
+    public <T> RowMapper<T> getMapper(MappingMode mode, ResultSetMetaData md, boolean partiel) throws SQLException, NoSuchMethodException {
+        EntityMapper<?> mapper = mappers.get(mode.ordinal());
+        if (mapper == null) {
+            mapper = new EntityMapper<>(this, mode);
+            if (!mappers.compareAndSet(mode.ordinal(), null, mapper)) {
+                mapper = mappers.get(mode.ordinal());
+            }
+        }
+        return ((EntityMapper<T>) mapper).plan(md, partiel);
+    }
+
+    /**
+     * Crée une nouvelle instance vide de la classe mappée.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T newInstance() throws Exception {
+        return (T) classe.getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Copie superficielle d'une instance : nouvel objet dont les champs
+     * non statiques et non finals reçoivent les valeurs de {@code source}.
+     */
+    <T> T copier(T source, MappingMode mode) throws Exception {
+        T copie = newInstance();
+        for (ColumnMetadata colonne : colonnesEcriture) {
+            ColumnAccessor accesseur = colonne.getAccesseur(mode);
+            accesseur.set(copie, accesseur.get(source));
+        }
+        BitSet nonChargees = lazyNonChargees.get(source);
+        if (nonChargees != null) {
+            lazyNonChargees.enregistrer(copie, nonChargees);
+        }
+        return copie;
+    }
+
+    /**
+     * Relève les valeurs des colonnes de l'UPDATE, pour les comparer plus
+     * tard avec {@link #modifiees}. Les dates mutables sont copiées.
+     */
+    Object[] etat(Object entite, MappingMode mode) throws Exception {
+        Object[] etat = new Object[colonnesUpdate.size()];
+        for (int i = 0; i < etat.length; i++) {
+            Object valeur = colonnesUpdate.get(i).getAccesseur(mode).get(entite);
+            etat[i] = valeur instanceof java.util.Date ? ((java.util.Date) valeur).clone() : valeur;
+        }
+        return etat;
+    }
+
+    /**
+     * Note les colonnes {@code @Lazy} qu'une lecture a laissées sans valeur
+     * dans {@code entite}.
+     *
+     * @param nonChargees Les indices dans {@link #getColonnesUpdate()}, non modifiés ensuite
+     */
+    void nonChargees(Object entite, BitSet nonChargees) {
+        lazyNonChargees.enregistrer(entite, nonChargees);
+    }
+
+    /**
+     * Note que des colonnes {@code @Lazy} viennent d'être chargées dans {@code entite}.
+     */
+    void chargees(Object entite, List<ColumnMetadata> colonnes) {
+        BitSet nonChargees = lazyNonChargees.get(entite);
+        if (nonChargees == null) {
+            return;
+        }
+        BitSet reste = (BitSet) nonChargees.clone();
+        for (ColumnMetadata colonne : colonnes) {
+            int index = colonnesUpdate.indexOf(colonne);
+            if (index >= 0) {
+                reste.clear(index);
+            }
+        }
+        if (reste.isEmpty()) {
+            lazyNonChargees.oublier(entite);
+        } else {
+            lazyNonChargees.enregistrer(entite, reste);
+        }
+    }
+
+    /**
+     * Colonnes à écrire par un UPDATE sans état relevé : toutes, sauf les
+     * colonnes {@code @Lazy} que la lecture de l'objet n'a pas chargées et
+     * qui sont toujours nulles. Une colonne chargée puis mise à null est écrite.
+     *
+     * @return Les indices dans {@link #getColonnesUpdate()}, ou null s'il faut
+     *         toutes les écrire
+     */
+    BitSet sansLazyNonChargees(Object entite, MappingMode mode) throws Exception {
+        if (colonnesLazy.isEmpty()) {
+            return null;
+        }
+        BitSet nonChargees = lazyNonChargees.get(entite);
+        if (nonChargees == null) {
+            return null;
+        }
+        BitSet ecrites = null;
+        for (int i = nonChargees.nextSetBit(0); i >= 0; i = nonChargees.nextSetBit(i + 1)) {
+            // Une valeur affectée par l'application est écrite, même sans chargement
+            if (colonnesUpdate.get(i).getAccesseur(mode).get(entite) == null) {
+                if (ecrites == null) {
+                    ecrites = new BitSet(colonnesUpdate.size());
+                    ecrites.set(0, colonnesUpdate.size());
+                }
+                ecrites.clear(i);
+            }
+        }
+        return ecrites;
+    }
+
+    /**
+     * @param etat L'état relevé par {@link #etat} à la lecture de l'objet
+     * @return Les index des colonnes de l'UPDATE dont la valeur a changé depuis
+     */
+    BitSet modifiees(Object[] etat, Object entite, MappingMode mode) throws Exception {
+        BitSet modifiees = new BitSet(etat.length);
+        for (int i = 0; i < etat.length; i++) {
+            Object valeur = colonnesUpdate.get(i).getAccesseur(mode).get(entite);
+            if (!Objects.deepEquals(etat[i], valeur)) {
+                modifiees.set(i);
+            }
+        }
+        return modifiees;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleProxies;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * Accesseur dont le getter et le setter sont des classes générées par
+ * {@link LambdaMetafactory} : l'appel est direct (inlinable par le JIT) et
+ * les champs int, long, double et boolean ne passent pas par le boxing.
+ * Si la classe mappée n'est pas visible depuis ce package (autre class loader,
+ * classe non publique), on retombe sur un {@link MethodHandle}.
+ */
+final class GeneratedAccessor implements ColumnAccessor {
+
+    interface ObjectGetter { Object get(Object bean); }
+    interface IntGetter { int get(Object bean); }
+    interface LongGetter { long get(Object bean); }
+    interface DoubleGetter { double get(Object bean); }
+    interface BooleanGetter { boolean get(Object bean); }
+
+    interface ObjectSetter { void set(Object bean, Object value); }
+    interface IntSetter { void set(Object bean, int value); }
+    interface LongSetter { void set(Object bean, long value); }
+    interface DoubleSetter { void set(Object bean, double value); }
+    interface BooleanSetter { void set(Object bean, boolean value); }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final ColumnMetadata colonne;
+    private final ObjectGetter getter;
+    private final ObjectSetter setter;
+    private final IntGetter intGetter;
+    private final IntSetter intSetter;
+    private final LongGetter longGetter;
+    private final LongSetter longSetter;
+    private final DoubleGetter doubleGetter;
+    private final DoubleSetter doubleSetter;
+    private final BooleanGetter booleanGetter;
+    private final BooleanSetter booleanSetter;
+
+    GeneratedAccessor(ColumnMetadata colonne, Method getterMethod, Method setterMethod) {
+        this.colonne = colonne;
+        Class<?> type = colonne.getType();
+        this.getter = getterMethod == null ? null : spin(ObjectGetter.class, "get", getterMethod, Object.class);
+        this.setter = setterMethod == null ? null : spin(ObjectSetter.class, "set", setterMethod, Object.class);
+        this.intGetter = getterMethod != null && type == int.class ? spin(IntGetter.class, "get", getterMethod, int.class) : null;
+        this.intSetter = setterMethod != null && type == int.class ? spin(IntSetter.class, "set", setterMethod, int.class) : null;
+        this.longGetter = getterMethod != null && type == long.class ? spin(LongGetter.class, "get", getterMethod, long.class) : null;
+        this.longSetter = setterMethod != null && type == long.class ? spin(LongSetter.class, "set", setterMethod, long.class) : null;
+        this.doubleGetter = getterMethod != null && type == double.class ? spin(DoubleGetter.class, "get", getterMethod, double.class) : null;
+        this.doubleSetter = setterMethod != null && type == double.class ? spin(DoubleSetter.class, "set", setterMethod, double.class) : null;
+        this.booleanGetter = getterMethod != null && type == boolean.class ? spin(BooleanGetter.class, "get", getterMethod, boolean.class) : null;
+        this.booleanSetter = setterMethod != null && type == boolean.class ? spin(BooleanSetter.class, "set", setterMethod, boolean.class) : null;
+    }
+
+    /**
+     * Génère une implémentation de {@code iface} qui appelle directement
+     * {@code method}. {@code valueType} est le type de la valeur vue par
+     * l'interface (retour pour un getter, second paramètre pour un setter).
+     */
+    private static <I> I spin(Class<I> iface, String name, Method method, Class<?> valueType) {
+        Class<?> owner = method.getDeclaringClass();
+        boolean isGetter = method.getParameterCount() == 0;
+        MethodType samType = isGetter
+                ? MethodType.methodType(valueType, Object.class)
+                : MethodType.methodType(void.class, Object.class, valueType);
+        try {
+            MethodHandle impl = LOOKUP.unreflect(method);
+            if (isVisible(owner)) {
+                MethodType instantiated = isGetter
+                        ? MethodType.methodType(valueType.isPrimitive() ? valueType : wrap(method.getReturnType()), owner)
+                        : MethodType.methodType(void.class, owner, valueType.isPrimitive() ? valueType : wrap(method.getParameterTypes()[0]));
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, name, MethodType.methodType(iface),
+                        samType, impl, instantiated);
+                return iface.cast(site.getTarget().invoke());
+            }
+            return MethodHandleProxies.asInterfaceInstance(iface, impl.asType(samType));
+        } catch (Throwable e) {
+            throw new IllegalStateException("Impossible de générer l'accesseur " + method, e);
+        }
+    }
+
+    /**
+     * Génère un constructeur sans argument pour la classe mappée.
+     */
+    static Supplier<Object> instantiator(Class<?> clazz) throws NoSuchMethodException {
+        Constructor<?> constructor = clazz.getConstructor();
+        try {
+            MethodHandle impl = LOOKUP.unreflectConstructor(constructor);
+            if (isVisible(clazz)) {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class), impl, MethodType.methodType(clazz));
+                @SuppressWarnings("unchecked")
+                Supplier<Object> supplier = (Supplier<Object>) site.getTarget().invoke();
+                return supplier;
+            }
+            MethodHandle generic = impl.asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return generic.invokeExact();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        } catch (Throwable e) {
+            throw new IllegalStateException("Impossible de générer le constructeur de " + clazz.getName(), e);
+        }
+    }
+
+    /**
+     * La classe générée est définie dans ce package : elle ne peut appeler
+     * directement la classe mappée que si celle-ci est publique et résolue
+     * par le même class loader.
+     */
+    private static boolean isVisible(Class<?> owner) {
+        if (!Modifier.isPublic(owner.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(owner.getName(), false, GeneratedAccessor.class.getClassLoader()) == owner;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    @Override
+    public Object get(Object bean) throws Exception {
+        if (getter == null) {
+            colonne.getGetter();
+        }
+        return getter.get(bean);
+    }
+
+    @Override
+    public void set(Object bean, Object value) throws Exception {
+        if (setter == null) {
+            colonne.getSetter();
+        }
+        setter.set(bean, value);
+    }
+
+    @Override
+    public int getInt(Object bean) throws Exception {
+        return intGetter != null ? intGetter.get(bean) : ColumnAccessor.super.getInt(bean);
+    }
+
+    @Override
+    public void setInt(Object bean, int value) throws Exception {
+        if (intSetter != null) {
+            intSetter.set(bean, value);
+        } else {
+            ColumnAccessor.super.setInt(bean, value);
+        }
+    }
+
+    @Override
+    public long getLong(Object bean) throws Exception {
+        return longGetter != null ? longGetter.get(bean) : ColumnAccessor.super.getLong(bean);
+    }
+
+    @Override
+    public void setLong(Object bean, long value) throws Exception {
+        if (longSetter != null) {
+            longSetter.set(bean, value);
+        } else {
+            ColumnAccessor.super.setLong(bean, value);
+        }
+    }
+
+    @Override
+    public double getDouble(Object bean) throws Exception {
+        return doubleGetter != null ? doubleGetter.get(bean) : ColumnAccessor.super.getDouble(bean);
+    }
+
+    @Override
+    public void setDouble(Object bean, double value) throws Exception {
+        if (doubleSetter != null) {
+            doubleSetter.set(bean, value);
+        } else {
+            ColumnAccessor.super.setDouble(bean, value);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Object bean) throws Exception {
+        return booleanGetter != null ? booleanGetter.get(bean) : ColumnAccessor.super.getBoolean(bean);
+    }
+
+    @Override
+    public void setBoolean(Object bean, boolean value) throws Exception {
+        if (booleanSetter != null) {
+            booleanSetter.set(bean, value);
+        } else {
+            ColumnAccessor.super.setBoolean(bean, value);
+        }
+    }
+}
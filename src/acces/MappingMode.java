@@ -0,0 +1,22 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+/**
+ * Moteur utilisé pour lire et écrire les champs des objets mappés.
+ */
+public enum MappingMode {
+    /**
+     * Getters et setters appelés par {@code Method.invoke} (valeurs boxées).
+     */
+    REFLECTION,
+    /**
+     * Accesseurs générés une fois par classe via {@code LambdaMetafactory},
+     * avec des chemins spécialisés pour int, long, double et boolean ; ou,
+     * pour une classe compilée avec le processeur d'annotations, ceux de son
+     * {@link EntityBinding}.
+     */
+    GENERATED
+}
@@ -0,0 +1,48 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page d'un résultat paginé par clé ({@code findPage*}) : les objets de la
+ * page et le jeton à repasser pour lire la suivante.
+ *
+ * @param <T> Le type des objets de la page
+ */
+public final class Page<T> {
+
+    private final List<T> contenu;
+    private final String continuationToken;
+
+    Page(List<T> contenu, String continuationToken) {
+        this.contenu = Collections.unmodifiableList(contenu);
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * @return Les objets de la page, dans l'ordre de la clé de tri
+     */
+    public List<T> getContent() {
+        return contenu;
+    }
+
+    /**
+     * @return Le jeton de la page suivante, ou null si c'est la dernière
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public boolean hasNext() {
+        return continuationToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page[objets=" + contenu.size() + ", suivante=" + hasNext() + "]";
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Jeton de continuation de la pagination par clé : l'empreinte de la requête
+ * et les valeurs de clé de la dernière ligne lue, sérialisées en Base64
+ * (URL). Le jeton est opaque pour l'appelant ; il est vérifié au décodage
+ * pour qu'un jeton d'une autre requête ne soit pas appliqué par erreur.
+ */
+final class PageToken {
+
+    private static final int VERSION = 1;
+
+    private static final byte NUL = 0;
+    private static final byte INTEGER = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte STRING = 4;
+    private static final byte DECIMAL = 5;
+    private static final byte TIMESTAMP = 6;
+    private static final byte DATE = 7;
+    private static final byte TIME = 8;
+    private static final byte BOOLEAN = 9;
+    private static final byte SHORT = 10;
+    private static final byte FLOAT = 11;
+    private static final byte UUID = 12;
+    private static final byte LOCAL_DATE = 13;
+    private static final byte LOCAL_DATE_TIME = 14;
+    private static final byte LOCAL_TIME = 15;
+    private static final byte OFFSET_DATE_TIME = 16;
+    private static final byte INSTANT = 17;
+
+    private PageToken() {
+    }
+
+    /**
+     * Empreinte d'une requête paginée : un jeton n'est accepté que par la
+     * même opération, sur la même table, avec le même tri, la même condition
+     * et les mêmes valeurs liées.
+     */
+    static String signature(String operation, String table, String tri, String condition, List<Object> valeurs) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        String texte = operation + '\u0000' + table + '\u0000' + tri + '\u0000' + condition + '\u0000'
+                + Arrays.deepToString(valeurs.toArray());
+        byte[] empreinte = digest.digest(texte.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(empreinte, 16));
+    }
+
+    /**
+     * @param signature L'empreinte de la requête, voir {@link #signature}
+     * @param valeurs Les valeurs de clé de la dernière ligne de la page
+     */
+    static String encoder(String signature, Object[] valeurs) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(signature);
+            out.writeByte(valeurs.length);
+            for (Object valeur : valeurs) {
+                ecrire(out, valeur);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @return Les valeurs de clé contenues dans le jeton
+     * @throws IllegalArgumentException Si le jeton est illisible ou ne
+     *         correspond pas à cette requête
+     */
+    static Object[] decoder(String token, String signature) {
+        String lue;
+        Object[] valeurs;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readUnsignedByte() != VERSION) {
+                throw new IOException("Version de jeton inconnue");
+            }
+            lue = in.readUTF();
+            valeurs = new Object[in.readUnsignedByte()];
+            for (int i = 0; i < valeurs.length; i++) {
+                valeurs[i] = lire(in);
+            }
+        } catch (IOException | IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Jeton de pagination invalide : " + token, e);
+        }
+        if (!lue.equals(signature)) {
+            throw new IllegalArgumentException("Jeton de pagination d'une autre requête : " + token);
+        }
+        return valeurs;
+    }
+
+    private static void ecrire(DataOutputStream out, Object valeur) throws IOException {
+        if (valeur == null) {
+            out.writeByte(NUL);
+        } else if (valeur instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) valeur);
+        } else if (valeur instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) valeur);
+        } else if (valeur instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) valeur);
+        } else if (valeur instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) valeur);
+        } else if (valeur instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) valeur);
+        } else if (valeur instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) valeur);
+        } else if (valeur instanceof String) {
+            out.writeByte(STRING);
+            out.writeUTF((String) valeur);
+        } else if (valeur instanceof BigDecimal) {
+            out.writeByte(DECIMAL);
+            out.writeUTF(valeur.toString());
+        } else if (valeur instanceof Timestamp) {
+            out.writeByte(TIMESTAMP);
+            out.writeLong(((Timestamp) valeur).getTime());
+            out.writeInt(((Timestamp) valeur).getNanos());
+        } else if (valeur instanceof Date) {
+            out.writeByte(DATE);
+            out.writeUTF(valeur.toString());
+        } else if (valeur instanceof Time) {
+            out.writeByte(TIME);
+            out.writeUTF(valeur.toString());
+        } else if (valeur instanceof java.util.UUID) {
+            out.writeByte(UUID);
+            out.writeUTF(valeur.toString());
+        } else if (valeur instanceof LocalDate) {
+            out.writeByte(LOCAL_DATE);
+            out.writeUTF(valeur.toString());
+        } else if (valeur instanceof LocalDateTime) {
+            out.writeByte(LOCAL_DATE_TIME);
+            out.writeUTF(valeur.toString());
+        } else if (valeur instanceof LocalTime) {
+            out.writeByte(LOCAL_TIME);
+            out.writeUTF(valeur.toString());
+        } else if (valeur instanceof OffsetDateTime) {
+            out.writeByte(OFFSET_DATE_TIME);
+            out.writeUTF(valeur.toString());
+        } else if (valeur instanceof Instant) {
+            out.writeByte(INSTANT);
+            out.writeUTF(valeur.toString());
+        } else if (valeur instanceof Enum) {
+            // Colonne lue par son nom (ConverterRegistry) : la clé se compare comme une chaîne
+            ecrire(out, ((Enum<?>) valeur).name());
+        } else if (valeur instanceof java.util.Date) {
+            // Lié comme Timestamp par ColumnMetadata.lierValeur
+            ecrire(out, new Timestamp(((java.util.Date) valeur).getTime()));
+        } else {
+            throw new IllegalArgumentException("Type non supporté pour une clé de pagination : " + valeur.getClass().getName());
+        }
+    }
+
+    private static Object lire(DataInputStream in) throws IOException {
+        int type = in.readUnsignedByte();
+        switch (type) {
+            case NUL:
+                return null;
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case SHORT:
+                return in.readShort();
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case BOOLEAN:
+                return in.readBoolean();
+            case STRING:
+                return in.readUTF();
+            case DECIMAL:
+                return new BigDecimal(in.readUTF());
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            case DATE:
+                return Date.valueOf(in.readUTF());
+            case TIME:
+                return Time.valueOf(in.readUTF());
+            case UUID:
+                return java.util.UUID.fromString(in.readUTF());
+            case LOCAL_DATE:
+                return LocalDate.parse(in.readUTF());
+            case LOCAL_DATE_TIME:
+                return LocalDateTime.parse(in.readUTF());
+            case LOCAL_TIME:
+                return LocalTime.parse(in.readUTF());
+            case OFFSET_DATE_TIME:
+                return OffsetDateTime.parse(in.readUTF());
+            case INSTANT:
+                // Relu par getTimestamp, lié de même
+                return Timestamp.from(Instant.parse(in.readUTF()));
+            default:
+                throw new IOException("Type de valeur inconnu : " + type);
+        }
+    }
+}
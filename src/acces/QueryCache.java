@@ -0,0 +1,257 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache des résultats de findByCriteria et findMulticriteria, indexé par la
+ * classe, le SQL généré et les paramètres liés. Seules les classes annotées
+ * {@code @Cacheable} y passent.
+ *
+ * La taille est bornée en nombre total de lignes gardées (toutes requêtes
+ * confondues), les résultats les moins récemment lus étant retirés en
+ * premier. Toute écriture de {@link DAO_CUD} sur une table invalide les
+ * résultats de cette table. Comme pour {@link EntityCache}, les objets sont
+ * gardés et rendus sous forme de copies.
+ */
+public final class QueryCache {
+
+    private final long maxLignes;
+    private final long ttlNanos;
+    private final LinkedHashMap<Cle, Entree> entrees = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Long> generations = new HashMap<>();
+    private long remises;
+    private long lignes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxLignes Nombre maximum de lignes gardées, tous résultats confondus
+     */
+    public QueryCache(long maxLignes) {
+        this(maxLignes, 0, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param maxLignes Nombre maximum de lignes gardées, tous résultats confondus
+     * @param ttl Durée de vie d'un résultat (0 pour ne jamais expirer)
+     * @param unite L'unité de {@code ttl}
+     */
+    public QueryCache(long maxLignes, long ttl, TimeUnit unite) {
+        if (maxLignes < 1) {
+            throw new IllegalArgumentException("Taille invalide : " + maxLignes);
+        }
+        if (ttl < 0) {
+            throw new IllegalArgumentException("Durée de vie négative : " + ttl);
+        }
+        this.maxLignes = maxLignes;
+        this.ttlNanos = unite.toNanos(ttl);
+    }
+
+    public long getMaxLignes() {
+        return maxLignes;
+    }
+
+    /**
+     * @return Des copies des objets du résultat en cache, ou null s'il est absent
+     */
+    <T> List<T> get(EntityMetadata meta, String sql, List<Object> valeurs, MappingMode mode) throws Exception {
+        Cle cle = new Cle(meta.getClasse(), sql, valeurs);
+        List<?> resultat;
+        synchronized (this) {
+            Entree entree = entrees.get(cle);
+            if (entree != null && entree.expiration != 0 && entree.expiration - System.nanoTime() <= 0) {
+                retirer(cle, entree);
+                entree = null;
+            }
+            resultat = entree != null ? entree.resultat : null;
+        }
+        if (resultat == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        List<T> copies = new ArrayList<>(resultat.size());
+        for (Object objet : resultat) {
+            @SuppressWarnings("unchecked")
+            T copie = meta.copier((T) objet, mode);
+            copies.add(copie);
+        }
+        return copies;
+    }
+
+    /**
+     * @return Le compteur d'invalidations de la table, à repasser à
+     *         {@link #put} une fois le résultat lu en base
+     */
+    synchronized long generation(EntityMetadata meta) {
+        // Les deux compteurs ne font que croître : la somme change si l'un change
+        return remises + generations.getOrDefault(meta.getNomTable(), 0L);
+    }
+
+    /**
+     * Met en cache des copies du résultat, sauf si la table a été modifiée
+     * depuis {@code generation} ou si le résultat dépasse à lui seul la taille
+     * du cache.
+     */
+    <T> void put(EntityMetadata meta, String sql, List<Object> valeurs, List<T> resultat, long generation,
+            MappingMode mode) throws Exception {
+        if (resultat.size() > maxLignes) {
+            return;
+        }
+        List<T> copies = new ArrayList<>(resultat.size());
+        for (T objet : resultat) {
+            copies.add(meta.copier(objet, mode));
+        }
+        Cle cle = new Cle(meta.getClasse(), sql, valeurs);
+        synchronized (this) {
+            if (remises + generations.getOrDefault(meta.getNomTable(), 0L) != generation) {
+                return;
+            }
+            Entree ancienne = entrees.put(cle, new Entree(meta.getNomTable(), copies,
+                    ttlNanos == 0 ? 0 : System.nanoTime() + ttlNanos));
+            if (ancienne != null) {
+                lignes -= ancienne.resultat.size();
+            }
+            lignes += copies.size();
+            Iterator<Map.Entry<Cle, Entree>> it = entrees.entrySet().iterator();
+            while (lignes > maxLignes && it.hasNext()) {
+                Entree plusAncienne = it.next().getValue();
+                it.remove();
+                lignes -= plusAncienne.resultat.size();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Oublie tous les résultats lus sur une table.
+     */
+    public void invalidate(String table) {
+        invalidations.increment();
+        synchronized (this) {
+            generations.merge(table, 1L, Long::sum);
+            Iterator<Entree> it = entrees.values().iterator();
+            while (it.hasNext()) {
+                Entree entree = it.next();
+                if (entree.table.equals(table)) {
+                    it.remove();
+                    lignes -= entree.resultat.size();
+                }
+            }
+        }
+    }
+
+    /**
+     * Oublie tous les résultats lus sur la table d'une classe.
+     */
+    public void invalidate(Class<?> classe) {
+        invalidate(EntityMetadata.of(classe).getNomTable());
+    }
+
+    /**
+     * Vide le cache.
+     */
+    public synchronized void clear() {
+        remises++;
+        entrees.clear();
+        lignes = 0;
+    }
+
+    private void retirer(Cle cle, Entree entree) {
+        entrees.remove(cle);
+        lignes -= entree.resultat.size();
+    }
+
+    /**
+     * @return Le nombre de résultats en cache
+     */
+    public synchronized int size() {
+        return entrees.size();
+    }
+
+    /**
+     * @return Le nombre total de lignes gardées
+     */
+    public synchronized long getLignes() {
+        return lignes;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCache[maxLignes=" + maxLignes + ", resultats=" + size() + ", lignes=" + getLignes()
+                + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions()
+                + ", invalidations=" + getInvalidations() + "]";
+    }
+
+    private static final class Cle {
+
+        private final Class<?> classe;
+        private final String sql;
+        private final Object[] valeurs;
+        private final int hash;
+
+        Cle(Class<?> classe, String sql, List<Object> valeurs) {
+            this.classe = classe;
+            this.sql = sql;
+            this.valeurs = valeurs.toArray();
+            this.hash = 31 * (31 * classe.hashCode() + sql.hashCode()) + Arrays.hashCode(this.valeurs);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Cle)) {
+                return false;
+            }
+            Cle autre = (Cle) o;
+            return classe == autre.classe && sql.equals(autre.sql) && Arrays.equals(valeurs, autre.valeurs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entree {
+
+        private final String table;
+        private final List<?> resultat;
+        private final long expiration;
+
+        Entree(String table, List<?> resultat, long expiration) {
+            this.table = table;
+            this.resultat = resultat;
+            this.expiration = expiration;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+/**
+ * Une requête exécutée par le DAO, telle que la voit un {@link DaoListener}.
+ * Dans {@link DaoListener#beforeQuery} seuls l'opération, la table, le SQL et
+ * le nombre de paramètres sont renseignés ; les durées, le nombre de lignes et
+ * l'erreur éventuelle le sont dans {@link DaoListener#afterQuery}.
+ */
+public final class QueryEvent {
+
+    private final String operation;
+    private final String table;
+    private final String sql;
+    private final int bindCount;
+    private long debut;
+    private long finExecution;
+    private long executionNanos;
+    private long hydrationNanos;
+    private long rowCount;
+    private Exception error;
+
+    QueryEvent(String operation, String table, String sql, int bindCount) {
+        this.operation = operation;
+        this.table = table;
+        this.sql = sql;
+        this.bindCount = bindCount;
+    }
+
+    void demarrer() {
+        debut = System.nanoTime();
+    }
+
+    /**
+     * Fin de l'exécution côté base.
+     */
+    void executee() {
+        finExecution = System.nanoTime();
+        executionNanos = finExecution - debut;
+    }
+
+    /**
+     * Fin de la lecture de toutes les lignes, juste après l'exécution.
+     */
+    void hydrate() {
+        hydrationNanos = System.nanoTime() - finExecution;
+    }
+
+    void terminer(long lignes, Exception erreur) {
+        if (finExecution == 0) {
+            executionNanos = System.nanoTime() - debut;
+        }
+        rowCount = lignes;
+        error = erreur;
+    }
+
+    /**
+     * Ajoute la lecture d'une ligne, pour un curseur lu à la demande.
+     */
+    void ajouterHydratation(long nanos) {
+        hydrationNanos += nanos;
+    }
+
+    /**
+     * @return La méthode du DAO ({@code findAll}, {@code update}, {@code insertAll}...)
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return Le nombre de paramètres liés (pour un lot, ceux d'un objet)
+     */
+    public int getBindCount() {
+        return bindCount;
+    }
+
+    /**
+     * @return La durée d'exécution de la requête (jusqu'au premier résultat pour une lecture)
+     */
+    public long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    /**
+     * @return Le temps passé à lire les lignes et à créer les objets
+     */
+    public long getHydrationNanos() {
+        return hydrationNanos;
+    }
+
+    /**
+     * @return Les lignes lues ou modifiées
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return L'erreur qui a interrompu la requête, ou null
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return operation + " [" + table + "] " + sql + " (" + bindCount + " paramètres, " + rowCount + " lignes, exécution "
+                + executionNanos / 1000 + " µs, hydratation " + hydrationNanos / 1000 + " µs"
+                + (error != null ? ", erreur " + error : "") + ")";
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lot de lectures indépendantes, éventuellement sur des classes différentes,
+ * envoyées en un seul aller-retour : les requêtes sont jointes par
+ * {@code ;} dans une seule requête préparée et chaque résultat est mappé vers
+ * son propre type. Avec un driver sans résultats multiples
+ * ({@code DatabaseMetaData.supportsMultipleResultSets()}), les requêtes sont
+ * exécutées l'une après l'autre.
+ *
+ * Un {@code findById} déjà dans l'{@link EntityCache} n'est pas envoyé ;
+ * le {@link QueryCache} n'est pas consulté. Un lot ne s'exécute qu'une fois.
+ * @example
+ * ```java
+ReadBatch lot = dao.readBatch();
+ReadBatch.Result<Client> client = lot.findById(Client.class, 42);
+ReadBatch.Result<Commande> commandes = lot.findByCriteria(critereCommandes);
+ReadBatch.Result<Produit> produits = lot.findAll(new Produit());
+lot.execute(connection);
+afficher(client.getSingle(), commandes.get(), produits.get());
+ * ```
+ */
+public final class ReadBatch {
+
+    private final DAORead dao;
+    private final List<Result<?>> requetes = new ArrayList<>();
+    private boolean execute;
+
+    ReadBatch(DAORead dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Résultat d'une lecture du lot, disponible après
+     * {@link ReadBatch#execute(Connection)}.
+     *
+     * @param <T> Le type des objets lus
+     */
+    public static final class Result<T> {
+
+        private final EntityMetadata meta;
+        private final String operation;
+        private final String sql;
+        private final List<Object> valeurs;
+        private List<T> objets;
+
+        private Result(EntityMetadata meta, String operation, String sql, List<Object> valeurs) {
+            this.meta = meta;
+            this.operation = operation;
+            this.sql = sql;
+            this.valeurs = valeurs;
+        }
+
+        /**
+         * @return Les objets lus
+         * @throws IllegalStateException Si le lot n'a pas encore été exécuté
+         */
+        public List<T> get() {
+            if (objets == null) {
+                throw new IllegalStateException("Lot de lectures pas encore exécuté");
+            }
+            return objets;
+        }
+
+        /**
+         * @return Le premier objet lu, ou null si aucun
+         */
+        public T getSingle() {
+            List<T> liste = get();
+            return liste.isEmpty() ? null : liste.get(0);
+        }
+    }
+
+    /**
+     * Ajoute {@link DAORead#find(Connection, Object, String)} au lot.
+     */
+    public <T> Result<T> find(T o, String query) {
+        return ajouter(EntityMetadata.of(o.getClass()), "find", query, new ArrayList<>());
+    }
+
+    /**
+     * Ajoute {@link DAORead#findAll(Connection, Object)} au lot.
+     */
+    public <T> Result<T> findAll(T o) {
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        return ajouter(meta, "findAll", meta.getSqlSelect(), new ArrayList<>());
+    }
+
+    /**
+     * Ajoute {@link DAORead#findByCriteria(Connection, Object)} au lot.
+     */
+    public <T> Result<T> findByCriteria(T o) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        List<Object> valuesList = new ArrayList<>();
+        String query = meta.getSqlCriteres(dao.criteres(meta, o, valuesList), false);
+        return ajouter(meta, "findByCriteria", query, valuesList);
+    }
+
+    /**
+     * Ajoute {@link DAORead#findById(Connection, Class, Object)} au lot ;
+     * {@link Result#getSingle()} donne l'objet.
+     */
+    public <T> Result<T> findById(Class<T> classe, Object pk) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(classe);
+        if (meta.getPrimaryKey() == null) {
+            throw new IllegalArgumentException("Primary key field not found for class: " + classe.getName());
+        }
+        if (pk == null) {
+            throw new IllegalArgumentException("Primary key value is null for class: " + classe.getName());
+        }
+        List<Object> valuesList = new ArrayList<>();
+        valuesList.add(pk);
+        Result<T> resultat = ajouter(meta, "findById", meta.getSqlSelectById(), valuesList);
+        EntityCache cache = dao.getEntityCache();
+        if (cache != null) {
+            T enCache = cache.get(meta, pk, dao.getMappingMode());
+            if (enCache != null) {
+                resultat.objets = Collections.singletonList(enCache);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * @return Le nombre de lectures du lot
+     */
+    public int size() {
+        return requetes.size();
+    }
+
+    /**
+     * Exécute les lectures du lot en un aller-retour si le driver le permet.
+     *
+     * @param co La connexion au SGBD
+     */
+    public void execute(Connection co) throws Exception {
+        if (execute) {
+            throw new IllegalStateException("Lot de lectures déjà exécuté");
+        }
+        execute = true;
+        List<Result<?>> aLire = new ArrayList<>();
+        for (Result<?> requete : requetes) {
+            if (requete.objets == null) {
+                aLire.add(requete);
+            } else {
+                dao.suivre(requete.meta, requete.objets);
+            }
+        }
+        if (aLire.size() > 1 && co.getMetaData().supportsMultipleResultSets()) {
+            lireEnUnAllerRetour(co, aLire);
+        } else {
+            for (Result<?> requete : aLire) {
+                lire(co, requete);
+            }
+        }
+    }
+
+    /**
+     * {@link #execute(Connection)} sur une connexion de la
+     * {@link DAORead#getDataSource() DataSource} du DAO.
+     */
+    public void execute() throws Exception {
+        try (Connection co = dao.connexion()) {
+            execute(co);
+        }
+    }
+
+    private <T> Result<T> ajouter(EntityMetadata meta, String operation, String sql, List<Object> valeurs) {
+        if (execute) {
+            throw new IllegalStateException("Lot de lectures déjà exécuté");
+        }
+        Result<T> resultat = new Result<>(meta, operation, sql, valeurs);
+        requetes.add(resultat);
+        return resultat;
+    }
+
+    private <T> void lire(Connection co, Result<T> requete) throws Exception {
+        requete.objets = dao.lire(co, requete.meta, requete.operation, requete.sql, requete.valeurs);
+    }
+
+    private void lireEnUnAllerRetour(Connection co, List<Result<?>> aLire) throws Exception {
+        StringBuilder sql = new StringBuilder();
+        List<Object> valeurs = new ArrayList<>();
+        Set<String> tables = new LinkedHashSet<>();
+        for (Result<?> requete : aLire) {
+            sql.append(sql.length() > 0 ? ";\n" : "").append(sansPointVirgule(requete.sql));
+            valeurs.addAll(requete.valeurs);
+            tables.add(requete.meta.getNomTable());
+        }
+        String query = sql.toString();
+        QueryEvent evenement = dao.avant("readBatch", String.join(",", tables), query, valeurs.size());
+        long lignes = 0;
+        try (PreparedStatement ps = co.prepareStatement(query)) {
+            Annulation.surveiller(ps);
+            for (int i = 0; i < valeurs.size(); i++) {
+                Object value = valeurs.get(i);
+                if (value != null) {
+                    ps.setObject(i + 1, value);
+                } else {
+                    ps.setNull(i + 1, Types.NULL);
+                }
+            }
+            boolean resultSet = ps.execute();
+            DAORead.executee(evenement);
+            for (Result<?> requete : aLire) {
+                // Les comptes de mise à jour éventuels ne sont pas des résultats de lecture
+                while (!resultSet && ps.getUpdateCount() != -1) {
+                    resultSet = ps.getMoreResults();
+                }
+                if (!resultSet) {
+                    throw new SQLException("Résultat manquant dans le lot pour : " + requete.sql);
+                }
+                try (ResultSet rs = ps.getResultSet()) {
+                    lignes += mapper(rs, requete);
+                }
+                resultSet = ps.getMoreResults();
+            }
+            if (evenement != null) {
+                evenement.hydrate();
+            }
+        } catch (Exception e) {
+            for (Result<?> requete : aLire) {
+                requete.objets = null;
+            }
+            dao.echec(evenement, e);
+            throw e;
+        } finally {
+            Annulation.liberer();
+        }
+        dao.apres(evenement, lignes);
+        for (Result<?> requete : aLire) {
+            dao.suivre(requete.meta, requete.objets);
+        }
+    }
+
+    private <T> int mapper(ResultSet rs, Result<T> requete) throws Exception {
+        RowMapper<T> mapper = requete.meta.getMapper(dao.getMappingMode(), rs.getMetaData());
+        List<T> objets = new ArrayList<>();
+        while (rs.next()) {
+            objets.add(mapper.map(rs));
+        }
+        requete.objets = objets;
+        return objets.size();
+    }
+
+    private static String sansPointVirgule(String sql) {
+        int fin = sql.length();
+        while (fin > 0 && (sql.charAt(fin - 1) == ';' || Character.isWhitespace(sql.charAt(fin - 1)))) {
+            fin--;
+        }
+        return sql.substring(0, fin);
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+/**
+ * Accesseur historique : getter et setter appelés par {@code Method.invoke}.
+ */
+final class ReflectionAccessor implements ColumnAccessor {
+
+    private final ColumnMetadata colonne;
+
+    ReflectionAccessor(ColumnMetadata colonne) {
+        this.colonne = colonne;
+    }
+
+    @Override
+    public Object get(Object bean) throws Exception {
+        return colonne.getGetter().invoke(bean);
+    }
+
+    @Override
+    public void set(Object bean, Object value) throws Exception {
+        colonne.getSetter().invoke(bean, value);
+    }
+}
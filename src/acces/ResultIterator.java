@@ -0,0 +1,139 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Itérateur sur un résultat lu par curseur : les objets sont créés au fur et
+ * à mesure, {@code fetchSize} lignes à la fois, au lieu d'être tous chargés
+ * dans une liste. Il doit être fermé (try-with-resources) s'il n'est pas
+ * parcouru jusqu'au bout ; la fermeture rétablit l'autocommit de la connexion
+ * s'il a fallu le couper pour le curseur.
+ *
+ * @param <T> Le type des objets lus
+ */
+public final class ResultIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final Connection co;
+    private final Statement stmt;
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+    private final boolean retablirAutoCommit;
+    private final QueryEvent evenement;
+    private final DaoListener listener;
+    private long lignes;
+    private T suivant;
+    private boolean ferme;
+
+    ResultIterator(Connection co, Statement stmt, ResultSet rs, RowMapper<T> mapper, boolean retablirAutoCommit,
+            QueryEvent evenement, DaoListener listener) {
+        this.co = co;
+        this.stmt = stmt;
+        this.rs = rs;
+        this.mapper = mapper;
+        this.retablirAutoCommit = retablirAutoCommit;
+        this.evenement = evenement;
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (suivant != null) {
+            return true;
+        }
+        if (ferme) {
+            return false;
+        }
+        try {
+            long debut = evenement != null ? System.nanoTime() : 0;
+            if (rs.next()) {
+                suivant = mapper.map(rs);
+                lignes++;
+                if (evenement != null) {
+                    evenement.ajouterHydratation(System.nanoTime() - debut);
+                }
+                return true;
+            }
+            close();
+            return false;
+        } catch (RuntimeException e) {
+            fermerSurErreur(e, e);
+            throw e;
+        } catch (Exception e) {
+            IllegalStateException erreur = new IllegalStateException("Lecture du résultat impossible", e);
+            fermerSurErreur(erreur, e);
+            throw erreur;
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T courant = suivant;
+        suivant = null;
+        return courant;
+    }
+
+    /**
+     * @return Un flux séquentiel sur les objets restants, qui ferme le curseur
+     *         quand il est lui-même fermé
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Fermeture du curseur impossible", e);
+                    }
+                });
+    }
+
+    private void fermerSurErreur(Exception e, Exception cause) {
+        try {
+            fermer(cause);
+        } catch (SQLException fermeture) {
+            e.addSuppressed(fermeture);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        fermer(null);
+    }
+
+    private void fermer(Exception erreur) throws SQLException {
+        if (ferme) {
+            return;
+        }
+        ferme = true;
+        suivant = null;
+        try {
+            rs.close();
+            stmt.close();
+        } finally {
+            if (retablirAutoCommit) {
+                co.setAutoCommit(true);
+            }
+            if (evenement != null) {
+                // Le temps entre deux next() appartient à l'appelant : seule la lecture est comptée
+                evenement.terminer(lignes, erreur);
+                listener.afterQuery(evenement);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package acces;
+
+import java.sql.ResultSet;
+
+/**
+ * Transforme la ligne courante d'un {@link ResultSet} en objet.
+ *
+ * @param <T> Le type de l'objet produit
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T map(ResultSet rs) throws Exception;
+}
@@ -0,0 +1,81 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+
+/**
+ * État des objets lus par un DAO, pour le dirty checking de
+ * {@link DAO_CUD#update}, ou colonnes {@code @Lazy} non chargées d'un objet
+ * ({@link EntityMetadata}). Les objets sont suivis par identité et ne sont
+ * retenus que faiblement : un objet qui n'est plus utilisé par l'application
+ * sort du suivi au prochain passage du GC.
+ *
+ * @param <V> L'état gardé pour chaque objet
+ */
+final class Snapshots<V> {
+
+    private final ReferenceQueue<Object> file = new ReferenceQueue<>();
+    private final HashMap<Ref, V> etats = new HashMap<>();
+
+    synchronized void enregistrer(Object entite, V etat) {
+        purger();
+        etats.put(new Ref(entite, file), etat);
+    }
+
+    synchronized V get(Object entite) {
+        return etats.get(new Ref(entite, null));
+    }
+
+    synchronized void oublier(Object entite) {
+        etats.remove(new Ref(entite, null));
+    }
+
+    synchronized int size() {
+        purger();
+        return etats.size();
+    }
+
+    private void purger() {
+        Reference<?> ref;
+        while ((ref = file.poll()) != null) {
+            etats.remove(ref);
+        }
+    }
+
+    /**
+     * Référence faible comparée par identité de l'objet référencé. Une
+     * référence effacée n'est plus égale qu'à elle-même.
+     */
+    private static final class Ref extends WeakReference<Object> {
+
+        private final int hash;
+
+        Ref(Object entite, ReferenceQueue<Object> file) {
+            super(entite, file);
+            this.hash = System.identityHashCode(entite);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Ref)) {
+                return false;
+            }
+            Object entite = get();
+            return entite != null && entite == ((Ref) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache LRU de requêtes préparées, un par connexion physique (celle d'un
+ * {@link ConnectionPool} est retrouvée d'un emprunt à l'autre). Réutiliser le même
+ * {@link PreparedStatement} permet au driver PostgreSQL de passer sur une
+ * requête préparée côté serveur (après {@code prepareThreshold} exécutions)
+ * au lieu de ré-analyser le SQL à chaque ligne.
+ *
+ * Les requêtes obtenues par {@link #prepare} ne doivent pas être fermées par
+ * l'appelant : il les rend avec {@link #release}.
+ */
+public final class StatementCache {
+
+    // Nombre de succès entre deux purges des connexions fermées (puissance de deux)
+    private static final int PURGE = 1024;
+
+    private final int capacite;
+    private final Map<Connection, Map<String, PreparedStatement>> parConnexion = new IdentityHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicInteger appels = new AtomicInteger();
+
+    /**
+     * @param capacite Nombre maximum de requêtes gardées par connexion
+     *        (0 désactive le cache : chaque requête est préparée puis fermée)
+     */
+    public StatementCache(int capacite) {
+        if (capacite < 0) {
+            throw new IllegalArgumentException("Capacité négative : " + capacite);
+        }
+        this.capacite = capacite;
+    }
+
+    public int getCapacite() {
+        return capacite;
+    }
+
+    /**
+     * Retourne la requête préparée pour ce SQL sur cette connexion, en la
+     * réutilisant si elle est déjà dans le cache.
+     *
+     * @param co La connexion
+     * @param sql Le SQL avec des paramètres {@code ?}
+     * @return La requête préparée, à rendre avec {@link #release}
+     */
+    public PreparedStatement prepare(Connection co, String sql) throws SQLException {
+        return prepare(co, sql, null);
+    }
+
+    /**
+     * Variante de {@link #prepare(Connection, String)} pour une requête qui
+     * rend les valeurs générées de certaines colonnes
+     * ({@link PreparedStatement#getGeneratedKeys()}).
+     *
+     * @param colonnesGenerees Les colonnes à rendre, ou null pour aucune
+     */
+    public PreparedStatement prepare(Connection co, String sql, String[] colonnesGenerees) throws SQLException {
+        if (capacite == 0) {
+            misses.increment();
+            return preparer(co, sql, colonnesGenerees);
+        }
+        // Le même SQL préparé avec ou sans clés générées donne deux requêtes distinctes
+        String cle = colonnesGenerees == null ? sql : sql + '\u0000' + String.join(",", colonnesGenerees);
+        Connection physique = ConnectionPool.physique(co);
+        Map<String, PreparedStatement> statements;
+        synchronized (parConnexion) {
+            statements = parConnexion.get(physique);
+        }
+        if (statements != null) {
+            PreparedStatement stmt;
+            synchronized (statements) {
+                stmt = statements.get(cle);
+            }
+            if (stmt != null && !stmt.isClosed()) {
+                hits.increment();
+                if ((appels.incrementAndGet() & (PURGE - 1)) == 0) {
+                    purger();
+                }
+                return stmt;
+            }
+        }
+        misses.increment();
+        PreparedStatement stmt = preparer(co, sql, colonnesGenerees);
+        purger();
+        synchronized (parConnexion) {
+            statements = parConnexion.computeIfAbsent(physique, c -> new Lru());
+        }
+        synchronized (statements) {
+            statements.put(cle, stmt);
+        }
+        return stmt;
+    }
+
+    private static PreparedStatement preparer(Connection co, String sql, String[] colonnesGenerees) throws SQLException {
+        return colonnesGenerees == null ? co.prepareStatement(sql) : co.prepareStatement(sql, colonnesGenerees);
+    }
+
+    /**
+     * Rend une requête obtenue par {@link #prepare}. Elle est fermée si le
+     * cache est désactivé, sinon elle reste ouverte pour le prochain appel.
+     */
+    public void release(PreparedStatement stmt) throws SQLException {
+        if (capacite == 0) {
+            stmt.close();
+        }
+    }
+
+    /**
+     * Ferme et oublie les requêtes des connexions fermées (appelé sur un
+     * défaut de cache et tous les {@value #PURGE} succès).
+     */
+    private void purger() throws SQLException {
+        List<Map<String, PreparedStatement>> fermees = new ArrayList<>();
+        synchronized (parConnexion) {
+            Iterator<Map.Entry<Connection, Map<String, PreparedStatement>>> it = parConnexion.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Connection, Map<String, PreparedStatement>> entree = it.next();
+                if (entree.getKey().isClosed()) {
+                    fermees.add(entree.getValue());
+                    it.remove();
+                }
+            }
+        }
+        for (Map<String, PreparedStatement> statements : fermees) {
+            fermer(statements);
+        }
+    }
+
+    /**
+     * Ferme et oublie toutes les requêtes gardées pour une connexion.
+     */
+    public void clear(Connection co) throws SQLException {
+        Map<String, PreparedStatement> statements;
+        synchronized (parConnexion) {
+            statements = parConnexion.remove(ConnectionPool.physique(co));
+        }
+        if (statements != null) {
+            fermer(statements);
+        }
+    }
+
+    /**
+     * Ferme et oublie toutes les requêtes gardées.
+     */
+    public void clear() throws SQLException {
+        List<Map<String, PreparedStatement>> toutes;
+        synchronized (parConnexion) {
+            toutes = new ArrayList<>(parConnexion.values());
+            parConnexion.clear();
+        }
+        for (Map<String, PreparedStatement> statements : toutes) {
+            fermer(statements);
+        }
+    }
+
+    private static void fermer(Map<String, PreparedStatement> statements) throws SQLException {
+        synchronized (statements) {
+            for (PreparedStatement stmt : statements.values()) {
+                stmt.close();
+            }
+            statements.clear();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCache[capacite=" + capacite + ", hits=" + getHits() + ", misses=" + getMisses()
+                + ", evictions=" + getEvictions() + "]";
+    }
+
+    /**
+     * Requêtes d'une connexion, de la moins récemment utilisée à la plus récente.
+     */
+    private final class Lru extends LinkedHashMap<String, PreparedStatement> {
+
+        private static final long serialVersionUID = 1L;
+
+        Lru() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() <= capacite) {
+                return false;
+            }
+            evictions.increment();
+            try {
+                eldest.getValue().close();
+            } catch (SQLException e) {
+                // La requête évincée n'est plus utilisée, l'erreur de fermeture est sans effet
+            }
+            return true;
+        }
+    }
+}
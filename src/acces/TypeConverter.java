@@ -0,0 +1,22 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package acces;
+
+/**
+ * Conversion d'une valeur lue par le driver ({@code ResultSet.getObject})
+ * vers le type d'un champ, à enregistrer dans le {@link ConverterRegistry}.
+ *
+ * @param <T> Le type du champ
+ */
+@FunctionalInterface
+public interface TypeConverter<T> {
+
+    /**
+     * @param valeur La valeur retournée par le driver, jamais null (un NULL
+     *        SQL donne un champ null sans appel au convertisseur)
+     * @return La valeur du champ
+     */
+    T convertir(Object valeur) throws Exception;
+}
@@ -0,0 +1,306 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package acces;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unité de travail : les insert, update et delete sont enregistrés au lieu
+ * d'être exécutés, puis envoyés ensemble par {@link #commit(Connection)} en
+ * lots JDBC ({@link DAO_CUD#insertAll}, {@link DAO_CUD#updateAll},
+ * {@link DAO_CUD#deleteAll}), par classe et par type d'opération, dans une
+ * seule transaction.
+ *
+ * Les opérations sur une même entité (même objet, ou même classe et même
+ * {@code @PrimaryKey}) sont fusionnées : plusieurs update n'en font qu'un,
+ * un update après un insert reste un insert, un delete après un insert
+ * annule les deux et un insert après un delete devient un update. Les
+ * objets sont lus au moment du commit : c'est leur dernier état qui est écrit.
+ *
+ * Au commit, les insert passent d'abord, puis les update, puis les delete ;
+ * les classes sont traitées dans l'ordre où elles ont été enregistrées (à
+ * l'envers pour les delete), pour respecter les clés étrangères usuelles.
+ * Une unité de travail n'est pas thread-safe.
+ * @example
+ * ```java
+UnitOfWork uow = new UnitOfWork(dao);
+uow.insert(commande);
+for (LigneCommande ligne : lignes) {
+    uow.insert(ligne);
+}
+uow.update(client);
+uow.update(client); // fusionné avec le précédent
+uow.commit(connection);
+ * ```
+ */
+public final class UnitOfWork {
+
+    private static final int INSERT = 0;
+    private static final int UPDATE = 1;
+    private static final int DELETE = 2;
+
+    private final DAO_CUD dao;
+    private final Map<Object, Operation> parObjet = new IdentityHashMap<>();
+    private final Map<List<Object>, Operation> parCle = new HashMap<>();
+    private final Map<Class<?>, Integer> classes = new LinkedHashMap<>();
+    private final List<Operation> operations = new ArrayList<>();
+
+    /**
+     * @param dao Le DAO qui exécute les écritures (taille des lots, clés
+     *        générées, caches...)
+     */
+    public UnitOfWork(DAO_CUD dao) {
+        if (dao == null) {
+            throw new IllegalArgumentException("DAO manquant");
+        }
+        this.dao = dao;
+    }
+
+    /**
+     * Une écriture en attente sur une entité.
+     */
+    private static final class Operation {
+
+        final EntityMetadata meta;
+        Object objet;
+        int type;
+        boolean annulee;
+
+        Operation(EntityMetadata meta, Object objet, int type) {
+            this.meta = meta;
+            this.objet = objet;
+            this.type = type;
+        }
+    }
+
+    /**
+     * Enregistre l'insertion de {@code o}.
+     */
+    public void insert(Object o) throws Exception {
+        Operation existante = trouver(o);
+        if (existante == null) {
+            ajouter(o, INSERT);
+        } else if (existante.type == DELETE) {
+            // Supprimée puis recréée : la ligne est remplacée
+            remplacer(existante, o, UPDATE);
+        } else {
+            throw new IllegalStateException("Entité déjà enregistrée dans l'unité de travail : " + o);
+        }
+    }
+
+    /**
+     * Enregistre la mise à jour de {@code o}.
+     */
+    public void update(Object o) throws Exception {
+        Operation existante = trouver(o);
+        if (existante == null) {
+            ajouter(o, UPDATE);
+        } else if (existante.type == DELETE) {
+            throw new IllegalStateException("Mise à jour d'une entité supprimée dans l'unité de travail : " + o);
+        } else {
+            remplacer(existante, o, existante.type);
+        }
+    }
+
+    /**
+     * Enregistre la suppression de {@code o}.
+     */
+    public void delete(Object o) throws Exception {
+        Operation existante = trouver(o);
+        if (existante == null) {
+            ajouter(o, DELETE);
+        } else if (existante.type == INSERT) {
+            // Jamais écrite : rien à envoyer
+            existante.annulee = true;
+            oublier(existante);
+        } else {
+            remplacer(existante, o, DELETE);
+        }
+    }
+
+    /**
+     * @return Le nombre d'écritures en attente, après fusion
+     */
+    public int size() {
+        int taille = 0;
+        for (Operation operation : operations) {
+            if (!operation.annulee) {
+                taille++;
+            }
+        }
+        return taille;
+    }
+
+    /**
+     * Abandonne les écritures en attente.
+     */
+    public void clear() {
+        parObjet.clear();
+        parCle.clear();
+        classes.clear();
+        operations.clear();
+    }
+
+    /**
+     * Envoie les écritures en attente. Si la connexion est en autocommit,
+     * elles sont faites dans une transaction validée ici (annulée en cas
+     * d'erreur) ; sinon la transaction en cours reste à la charge de
+     * l'appelant. Les écritures ne sont oubliées qu'une fois envoyées sans
+     * erreur.
+     *
+     * @param co La connexion au SGBD
+     * @return Le nombre de lignes modifiées rapporté par le driver
+     */
+    public long commit(Connection co) throws Exception {
+        boolean transaction = co.getAutoCommit();
+        if (transaction) {
+            co.setAutoCommit(false);
+        }
+        long lignes;
+        try {
+            lignes = flush(co);
+            if (transaction) {
+                co.commit();
+            }
+        } catch (Exception e) {
+            if (transaction) {
+                try {
+                    co.rollback();
+                } catch (Exception annulation) {
+                    e.addSuppressed(annulation);
+                }
+            }
+            throw e;
+        } finally {
+            if (transaction) {
+                co.setAutoCommit(true);
+            }
+        }
+        clear();
+        return lignes;
+    }
+
+    /**
+     * {@link #commit(Connection)} sur une connexion de la
+     * {@link DAORead#getDataSource() DataSource} du DAO.
+     */
+    public long commit() throws Exception {
+        try (Connection co = dao.connexion()) {
+            return commit(co);
+        }
+    }
+
+    private long flush(Connection co) throws Exception {
+        List<List<Operation>> inserts = grouper(INSERT);
+        List<List<Operation>> updates = grouper(UPDATE);
+        List<List<Operation>> deletes = grouper(DELETE);
+        long lignes = 0;
+        for (List<Operation> groupe : inserts) {
+            lignes += dao.insertAll(co, objets(groupe)).getTotalUpdateCount();
+        }
+        for (List<Operation> groupe : updates) {
+            lignes += dao.updateAll(co, objets(groupe)).getTotalUpdateCount();
+        }
+        for (int i = deletes.size() - 1; i >= 0; i--) {
+            lignes += dao.deleteAll(co, objets(deletes.get(i))).getTotalUpdateCount();
+        }
+        return lignes;
+    }
+
+    /**
+     * @return Les opérations d'un type, un groupe par classe dans l'ordre
+     *         d'enregistrement des classes
+     */
+    private List<List<Operation>> grouper(int type) {
+        List<List<Operation>> groupes = new ArrayList<>(classes.size());
+        for (int i = 0; i < classes.size(); i++) {
+            groupes.add(new ArrayList<>());
+        }
+        for (Operation operation : operations) {
+            if (!operation.annulee && operation.type == type) {
+                groupes.get(classes.get(operation.meta.getClasse())).add(operation);
+            }
+        }
+        groupes.removeIf(List::isEmpty);
+        return groupes;
+    }
+
+    private static List<Object> objets(List<Operation> groupe) {
+        List<Object> objets = new ArrayList<>(groupe.size());
+        for (Operation operation : groupe) {
+            objets.add(operation.objet);
+        }
+        return objets;
+    }
+
+    private Operation trouver(Object o) throws Exception {
+        Operation operation = parObjet.get(o);
+        if (operation == null) {
+            List<Object> cle = cle(EntityMetadata.of(o.getClass()), o);
+            if (cle != null) {
+                operation = parCle.get(cle);
+            }
+        }
+        return operation;
+    }
+
+    private void ajouter(Object o, int type) throws Exception {
+        EntityMetadata meta = EntityMetadata.of(o.getClass());
+        if (type != INSERT && meta.getPrimaryKey() == null) {
+            throw new IllegalArgumentException("Primary key field not found for object: " + o);
+        }
+        Operation operation = new Operation(meta, o, type);
+        classes.putIfAbsent(meta.getClasse(), classes.size());
+        operations.add(operation);
+        indexer(operation);
+    }
+
+    private void remplacer(Operation operation, Object o, int type) throws Exception {
+        oublier(operation);
+        operation.objet = o;
+        operation.type = type;
+        indexer(operation);
+    }
+
+    private void indexer(Operation operation) throws Exception {
+        parObjet.put(operation.objet, operation);
+        // Un objet à insérer n'a souvent pas encore de clé (0 ou null si elle est générée)
+        List<Object> cle = operation.type == INSERT ? null : cle(operation.meta, operation.objet);
+        if (cle != null) {
+            parCle.put(cle, operation);
+        }
+    }
+
+    private void oublier(Operation operation) throws Exception {
+        parObjet.remove(operation.objet);
+        List<Object> cle = cle(operation.meta, operation.objet);
+        if (cle != null) {
+            parCle.remove(cle, operation);
+        }
+    }
+
+    /**
+     * @return La table et la clé primaire de l'objet, ou null s'il n'en a
+     *         pas encore (clé générée à l'insert)
+     */
+    private List<Object> cle(EntityMetadata meta, Object o) throws Exception {
+        ColumnMetadata pk = meta.getPrimaryKey();
+        if (pk == null) {
+            return null;
+        }
+        Object valeur = pk.getAccesseur(dao.getMappingMode()).get(o);
+        if (valeur == null) {
+            return null;
+        }
+        return Arrays.asList(meta.getNomTable(), EntityCache.normaliser(valeur));
+    }
+}